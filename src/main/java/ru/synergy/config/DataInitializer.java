@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.synergy.model.Role;
 import ru.synergy.model.SubscriptionPlan;
@@ -19,10 +21,18 @@ public class DataInitializer {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final SubscriptionPlanRepository subRepo;
+    private final JdbcTemplate jdbcTemplate;
 
     @Bean
     CommandLineRunner initUsers() {
         return args -> {
+            alignTrackSequence();
+            addUserFollowsUniqueIndex();
+            migrateLegacyPlaylistTracks();
+            fillPlaylistSummaries();
+            addUsernamePrefixIndex();
+            addPendingFanOutIndex();
+
             if (userRepository.findByUsername("administrator").isEmpty()) {
                 User admin = new User();
                 admin.setUsername("administrator");
@@ -56,5 +66,72 @@ public class DataInitializer {
             }
         };
     }
+
+    private void alignTrackSequence() {
+        runMigration("синхронизировать последовательность tracks_seq",
+                "SELECT setval('tracks_seq', GREATEST(" +
+                        "(SELECT COALESCE(MAX(id), 0) FROM tracks) + 50, " +
+                        "(SELECT last_value FROM tracks_seq)))");
+    }
+
+    private void addUserFollowsUniqueIndex() {
+        runMigration("удалить дубликаты подписок",
+                "DELETE FROM user_follows a USING user_follows b WHERE a.ctid < b.ctid " +
+                        "AND a.follower_id = b.follower_id AND a.followed_id = b.followed_id");
+        runMigration("создать уникальный индекс подписок",
+                "CREATE UNIQUE INDEX IF NOT EXISTS ux_user_follows ON user_follows (follower_id, followed_id)");
+    }
+
+    private void migrateLegacyPlaylistTracks() {
+        Boolean legacyTableExists;
+        try {
+            legacyTableExists = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass('playlist_tracks') IS NOT NULL", Boolean.class);
+        } catch (DataAccessException e) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(legacyTableExists)) {
+            return;
+        }
+        boolean copied = runMigration("перенести треки плейлистов в playlist_entries",
+                "INSERT INTO playlist_entries (id, playlist_id, track_id, position, added_at) " +
+                        "SELECT nextval('playlist_entries_seq'), pt.playlist_id, pt.tracks_id, " +
+                        "1024 * ROW_NUMBER() OVER (PARTITION BY pt.playlist_id ORDER BY pt.ctid), CURRENT_TIMESTAMP " +
+                        "FROM playlist_tracks pt");
+        if (copied) {
+            runMigration("переименовать старую таблицу playlist_tracks",
+                    "ALTER TABLE playlist_tracks RENAME TO playlist_tracks_legacy");
+        }
+    }
+
+    private void fillPlaylistSummaries() {
+        runMigration("заполнить сводку плейлистов",
+                "UPDATE playlists p SET " +
+                        "track_count = (SELECT COUNT(*) FROM playlist_entries e WHERE e.playlist_id = p.id), " +
+                        "total_duration_seconds = (SELECT COALESCE(SUM(t.duration_seconds), 0) " +
+                        "FROM playlist_entries e JOIN tracks t ON t.id = e.track_id WHERE e.playlist_id = p.id) " +
+                        "WHERE p.track_count = 0 AND EXISTS (SELECT 1 FROM playlist_entries e WHERE e.playlist_id = p.id)");
+    }
+
+    private void addUsernamePrefixIndex() {
+        runMigration("создать индекс для поиска пользователей по префиксу",
+                "CREATE INDEX IF NOT EXISTS idx_logins_username_c ON logins (username COLLATE \"C\")");
+    }
+
+    private void addPendingFanOutIndex() {
+        runMigration("создать индекс событий ленты, ожидающих рассылки",
+                "CREATE INDEX IF NOT EXISTS idx_feed_events_fan_out_pending ON feed_events (id) " +
+                        "WHERE fan_out_cursor IS NOT NULL");
+    }
+
+    private boolean runMigration(String description, String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось " + description + ": " + e.getMessage());
+            return false;
+        }
+    }
 }
 
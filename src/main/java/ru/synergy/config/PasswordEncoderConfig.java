@@ -1,14 +1,37 @@
 package ru.synergy.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class PasswordEncoderConfig {
+    private static final String DEFAULT_ENCODER = "bcrypt";
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength = 10;
+
+    @Value("${security.password.hashing-threads:2}")
+    private int hashingThreads = 2;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    @Value("${security.password.timeout:PT5S}")
+    private Duration timeout = Duration.ofSeconds(5);
+
     @Bean
     public PasswordEncoder getPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(DEFAULT_ENCODER,
+                Map.of(DEFAULT_ENCODER, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, hashingThreads, queueCapacity, timeout);
     }
 }
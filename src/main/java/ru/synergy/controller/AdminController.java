@@ -1,35 +1,62 @@
 package ru.synergy.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.UserDirectoryPage;
 import ru.synergy.model.Role;
 import ru.synergy.model.User;
+import ru.synergy.service.AudioDiskCache;
 import ru.synergy.service.UserService;
 
-import java.security.Principal;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 public class AdminController {
+    static final int MAX_PAGE_SIZE = 200;
 
     private final UserService userService;
+    private final AudioDiskCache audioDiskCache;
 
     @GetMapping("/users")
-    public String showUsers(Model model, Principal principal) {
-        User currentUser = userService.findByUsername(principal.getName())
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+    public String showUsers(Model model,
+                            @RequestParam(required = false) String q,
+                            @RequestParam(required = false) String after,
+                            @RequestParam(defaultValue = "50") int size,
+                            @CurrentUser User currentUser) {
+        if (currentUser == null) {
+            throw new RuntimeException("Пользователь не найден");
+        }
 
         if (!currentUser.getRole().equals(Role.ROLE_ADMIN)) {
             return "redirect:/";
         }
 
         model.addAttribute("currentUser", currentUser);
-        model.addAttribute("users", userService.findAll());
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        UserDirectoryPage page = userService.getDirectoryPage(q, after, pageSize);
+        model.addAttribute("users", page.users());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("pageCursor", after);
+        model.addAttribute("searchQuery", q);
+        model.addAttribute("pageSize", pageSize);
         return "users";
     }
 
+    @GetMapping("/admin/stream-cache")
+    @ResponseBody
+    public ResponseEntity<Map<String, Long>> streamCacheStats(@CurrentUser User currentUser) {
+        if (currentUser == null || !currentUser.getRole().equals(Role.ROLE_ADMIN)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(audioDiskCache.stats());
+    }
+
     @PostMapping("/users/{id}/delete")
     public String deleteUser(@PathVariable Long id) {
         userService.deleteById(id);
@@ -2,6 +2,7 @@ package ru.synergy.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -35,7 +36,12 @@ public class AuthController {
 
         User user = new User();
         user.setUsername(request.username());
-        user.setPasswordHash(passwordEncoder.encode(request.password()));
+        try {
+            user.setPasswordHash(passwordEncoder.encode(request.password()));
+        } catch (AuthenticationServiceException e) {
+            model.addAttribute("error", e.getMessage());
+            return "register";
+        }
         user.setRole(Role.ROLE_USER);
 
         userRepository.save(user);
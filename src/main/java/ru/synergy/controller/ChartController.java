@@ -0,0 +1,29 @@
+package ru.synergy.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.synergy.dto.ChartEntryDto;
+import ru.synergy.model.ChartCategory;
+import ru.synergy.model.ChartWindow;
+import ru.synergy.service.TopChartService;
+
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+public class ChartController {
+    private static final int MAX_LIMIT = 100;
+
+    private final TopChartService topChartService;
+
+    @GetMapping("/charts")
+    @ResponseBody
+    public List<ChartEntryDto> chart(@RequestParam(defaultValue = "DAY") ChartWindow window,
+                                     @RequestParam(defaultValue = "TRACKS") ChartCategory category,
+                                     @RequestParam(defaultValue = "20") int size) {
+        return topChartService.getChart(window, category, Math.max(1, Math.min(size, MAX_LIMIT)));
+    }
+}
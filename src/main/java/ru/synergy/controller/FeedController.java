@@ -0,0 +1,30 @@
+package ru.synergy.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.model.FeedEvent;
+import ru.synergy.model.User;
+import ru.synergy.service.FeedService;
+
+@Controller
+@RequiredArgsConstructor
+public class FeedController {
+    private final FeedService feedService;
+
+    @GetMapping("/feed")
+    @ResponseBody
+    public ResponseEntity<CursorPage<FeedEvent>> feed(@RequestParam(required = false) Long before,
+                                                     @RequestParam(defaultValue = "50") int size,
+                                                     @CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(feedService.getFeed(user, before, size));
+    }
+}
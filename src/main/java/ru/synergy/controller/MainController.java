@@ -6,73 +6,92 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.model.ChartCategory;
+import ru.synergy.model.ChartWindow;
+import ru.synergy.model.FeedEvent;
 import ru.synergy.model.Playlist;
+import ru.synergy.model.PlaylistTrack;
 import ru.synergy.model.Track;
 import ru.synergy.model.User;
-import ru.synergy.model.UserSubscription;
-import ru.synergy.repository.UserSubscriptionRepository;
+import ru.synergy.service.FeedService;
 import ru.synergy.service.PlaylistService;
+import ru.synergy.service.StreamTokenService;
+import ru.synergy.service.SubscriptionStatusService;
+import ru.synergy.service.TopChartService;
+import ru.synergy.service.TrackRecommendationService;
 import ru.synergy.service.TrackReviewService;
 import ru.synergy.service.TrackService;
 import ru.synergy.service.UserService;
 
 import java.security.Principal;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
 public class MainController {
+    static final int SUGGESTED_USERS_LIMIT = 10;
+    static final int RECOMMENDED_TRACKS_LIMIT = 10;
+    static final int CHART_LIMIT = 10;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final TrackService trackService;
     private final PlaylistService playlistService;
     private final UserService userService;
     private final TrackReviewService trackReviewService;
-    private final UserSubscriptionRepository subRepo;
+    private final SubscriptionStatusService subscriptionStatusService;
+    private final FeedService feedService;
+    private final StreamTokenService streamTokenService;
+    private final TrackRecommendationService trackRecommendationService;
+    private final TopChartService topChartService;
 
     @GetMapping("/")
     public String showMainPage(Model model,
                                @RequestParam(required = false) String search,
-                               Principal principal) {
-        User user = getCurrentUser(model, principal);
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "50") int size,
+                               @RequestParam(defaultValue = "DAY") ChartWindow chart,
+                               Principal principal,
+                               @CurrentUser User user) {
+        addCurrentUserErrors(model, principal, user);
         model.addAttribute("currentUser", user);
 
         populateSubscriptionAttributes(model, user);
 
+        int pageSize = clampPageSize(size);
         List<Track> tracks;
         if (search != null && !search.trim().isEmpty()) {
-            tracks = trackService.searchTracks(search.trim());
+            tracks = trackService.searchTracks(search.trim(), page, pageSize);
             model.addAttribute("searchQuery", search.trim());
+            model.addAttribute("searchPage", page);
+            model.addAttribute("hasMoreResults", tracks.size() >= pageSize);
         } else {
-            tracks = trackService.getAllTracks();
+            CursorPage<Track> catalogPage = trackService.getTracksPage(after, pageSize);
+            tracks = catalogPage.items();
+            model.addAttribute("nextCursor", catalogPage.nextCursor());
+            model.addAttribute("pageCursor", after);
         }
+        model.addAttribute("pageSize", pageSize);
 
         model.addAttribute("tracks", tracks);
 
+        model.addAttribute("recommendedTracks", trackRecommendationService.recommendFor(user, RECOMMENDED_TRACKS_LIMIT));
+        populateChartAttributes(model, chart);
+
         List<Playlist> userPlaylists = user != null ? playlistService.getUserPlaylists(user) : List.of();
         model.addAttribute("playlists", userPlaylists);
-        model.addAttribute("users", userService.findAll());
+        populateFollowAttributes(model, user);
 
-        List<User> following = user != null ? user.getFollowing() : List.of();
-        model.addAttribute("followingIds", following.stream().map(User::getId).toList());
-        model.addAttribute("currentUserId", user != null ? user.getId() : null);
-        model.addAttribute("followedPlaylists", playlistService.getPlaylistsOfUsers(following));
-
-        model.addAttribute("reviewsByTrack", tracks.stream()
-                .collect(Collectors.toMap(
-                        Track::getId,
-                        t -> Optional.ofNullable(trackReviewService.getReviews(t.getId()))
-                                .orElse(Collections.emptyList())
-                )));
-
-        model.addAttribute("avgRatings", tracks.stream()
-                .collect(Collectors.toMap(
-                        Track::getId,
-                        t -> Optional.ofNullable(trackReviewService.getAverageRating(t.getId()))
-                                .orElse(0.0)
-                )));
+        populateReviewAttributes(model, tracks);
+        model.addAttribute("streamUrls", streamTokenService.issueUrls(user, tracks.stream().map(Track::getId).toList()));
 
         return "main";
     }
@@ -80,16 +99,17 @@ public class MainController {
     @GetMapping("/playlist/{id}")
     public String showPlaylistTracks(
             @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size,
             Model model,
-            Principal principal
+            Principal principal,
+            @CurrentUser User user
     ) {
         if (principal == null) {
             model.addAttribute("error", "Пользователь не авторизован");
             return "redirect:/login";
         }
 
-        String username = principal.getName();
-        User user = userService.findByUsername(username).orElse(null);
         if (user == null) {
             model.addAttribute("error", "Пользователь не найден");
             return "redirect:/";
@@ -102,61 +122,76 @@ public class MainController {
         }
 
         Playlist playlist = playlistOpt.get();
-        List<Track> tracks = playlist.getTracks();
+        int pageSize = clampPageSize(size);
+        CursorPage<PlaylistTrack> page = playlistService.getTracksPage(playlist, after, pageSize);
+        List<Track> tracks = page.items().stream().map(PlaylistTrack::getTrack).toList();
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("pageCursor", after);
+        model.addAttribute("pageSize", pageSize);
+        model.addAttribute("playlistSummary", playlistService.getSummary(playlist));
 
         populateSubscriptionAttributes(model, user);
 
         model.addAttribute("tracks", tracks);
         model.addAttribute("playlists", playlistService.getUserPlaylists(user));
-        model.addAttribute("users", userService.findAll());
-
-        List<User> following = user.getFollowing();
-        model.addAttribute("followingIds", following.stream().map(User::getId).toList());
-        model.addAttribute("currentUserId", user.getId());
-        model.addAttribute("followedPlaylists", playlistService.getPlaylistsOfUsers(following));
-
-        model.addAttribute("reviewsByTrack", tracks.stream()
-                .collect(Collectors.toMap(
-                        Track::getId,
-                        t -> trackReviewService.getReviews(t.getId())
-                )));
-        model.addAttribute("avgRatings", tracks.stream()
-                .collect(Collectors.toMap(
-                        Track::getId,
-                        t -> trackReviewService.getAverageRating(t.getId())
-                )));
+        populateFollowAttributes(model, user);
+
+        populateReviewAttributes(model, tracks);
+        model.addAttribute("streamUrls", streamTokenService.issueUrls(user, tracks.stream().map(Track::getId).toList()));
         model.addAttribute("activePlaylistId", id);
         model.addAttribute("playlistName", playlist.getName());
 
         return "main";
     }
 
-    private void populateSubscriptionAttributes(Model model, User user) {
-        Optional<UserSubscription> activeSubscriptionOpt = subRepo.findByUserAndIsActive(user, true);
-        model.addAttribute("hasActiveSubscription", activeSubscriptionOpt.isPresent());
+    private void populateFollowAttributes(Model model, User user) {
+        List<UserSummaryDto> users = userService.getSuggestedUsers(user, SUGGESTED_USERS_LIMIT);
+        List<Long> userIds = users.stream().map(UserSummaryDto::id).toList();
+        model.addAttribute("users", users);
+        model.addAttribute("followingIds", userService.getFollowedIdsAmong(user, userIds));
+        model.addAttribute("followStats", userService.getFollowStats(userIds));
+        model.addAttribute("currentUserId", user != null ? user.getId() : null);
+
+        CursorPage<FeedEvent> feed = feedService.getFeed(user, null, FeedService.DEFAULT_PAGE_SIZE);
+        model.addAttribute("feed", feed.items());
+        model.addAttribute("feedNextCursor", feed.nextCursor());
+    }
 
-        activeSubscriptionOpt.ifPresent(activeSubscription -> {
-            LocalDateTime endDate = activeSubscription.getEndDate();
-            long daysLeft = java.time.temporal.ChronoUnit.DAYS.between(
-                    LocalDateTime.now(), endDate);
-            model.addAttribute("daysLeft", Math.max(0, daysLeft));
-        });
+    private void populateChartAttributes(Model model, ChartWindow window) {
+        model.addAttribute("chartWindow", window);
+        model.addAttribute("chartWindows", ChartWindow.values());
+        model.addAttribute("topTracks", topChartService.getChart(window, ChartCategory.TRACKS, CHART_LIMIT));
+        model.addAttribute("topArtists", topChartService.getChart(window, ChartCategory.ARTISTS, CHART_LIMIT));
+        model.addAttribute("topGenres", topChartService.getChart(window, ChartCategory.GENRES, CHART_LIMIT));
+    }
 
-        if (activeSubscriptionOpt.isEmpty()) {
+    private void populateReviewAttributes(Model model, List<Track> tracks) {
+        Set<Long> trackIds = tracks.stream().map(Track::getId).collect(Collectors.toSet());
+        model.addAttribute("reviewsByTrack", trackReviewService.getReviewsByTrackIds(trackIds));
+        model.addAttribute("avgRatings", trackReviewService.getAverageRatings(trackIds));
+    }
+
+    private void populateSubscriptionAttributes(Model model, User user) {
+        SubscriptionStatus status = subscriptionStatusService.getStatus(user);
+        LocalDateTime now = LocalDateTime.now();
+        boolean active = status.isActiveAt(now);
+        model.addAttribute("hasActiveSubscription", active);
+        if (active) {
+            model.addAttribute("daysLeft", status.daysLeftAt(now));
+        } else {
             model.addAttribute("daysLeft", 0);
         }
     }
 
-    private User getCurrentUser(Model model, Principal principal) {
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private void addCurrentUserErrors(Model model, Principal principal, User user) {
         if (principal == null) {
             model.addAttribute("error", "Пользователь не авторизован");
-            return null;
-        }
-        String username = principal.getName();
-        User user = userService.findByUsername(username).orElse(null);
-        if (user == null) {
+        } else if (user == null) {
             model.addAttribute("error", "Пользователь не найден");
         }
-        return user;
     }
 }
@@ -3,6 +3,7 @@ package ru.synergy.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import ru.synergy.model.User;
 import ru.synergy.repository.UserRepository;
+import ru.synergy.service.UserDetailServiceImpl;
 
 import java.util.Collections;
 import java.util.Map;
@@ -22,6 +24,7 @@ import java.util.Map;
 public class PasswordController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailServiceImpl userDetailService;
 
     @GetMapping("/change")
     public String showChangePasswordForm(Model model, Authentication authentication) {
@@ -61,12 +64,20 @@ public class PasswordController {
 
         user.setPasswordHash(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        userDetailService.evict(username);
 
         redirectAttributes.addFlashAttribute("success", "Пароль успешно изменён");
         return "redirect:/";
 
     }
 
+    @ExceptionHandler(AuthenticationServiceException.class)
+    public String handleHashingOverload(AuthenticationServiceException ex, Model model, Authentication authentication) {
+        model.addAttribute("username", authentication.getName());
+        model.addAttribute("error", ex.getMessage());
+        return "change-password";
+    }
+
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleUsernameNotFound(
             UsernameNotFoundException ex) {
@@ -0,0 +1,36 @@
+package ru.synergy.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.PlayEventRequest;
+import ru.synergy.model.User;
+import ru.synergy.service.PlayEventService;
+
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class PlayController {
+    private final PlayEventService playEventService;
+
+    @PostMapping("/plays")
+    @ResponseBody
+    public ResponseEntity<?> record(@RequestBody PlayEventRequest request, @CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Пользователь не авторизован"));
+        }
+        try {
+            playEventService.record(user, request);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -8,7 +8,14 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.PlaylistBulkEditDto;
+import ru.synergy.dto.PlaylistBulkResultDto;
+import ru.synergy.dto.PlaylistEntryDto;
+import ru.synergy.dto.PlaylistSummaryDto;
 import ru.synergy.model.Playlist;
+import ru.synergy.model.PlaylistTrack;
 import ru.synergy.model.Track;
 import ru.synergy.model.User;
 import ru.synergy.repository.UserRepository;
@@ -16,6 +23,7 @@ import ru.synergy.service.PlaylistService;
 import ru.synergy.service.TrackService;
 
 import java.security.Principal;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -50,7 +58,7 @@ public class PlaylistController {
             return "playlist/create";
         }
         playlist.setUser(user);
-        playlistService.save(playlist);
+        playlistService.create(playlist);
 
         return "redirect:/";
     }
@@ -96,8 +104,7 @@ public class PlaylistController {
             return "redirect:/";
         }
 
-        playlist.getTracks().add(track);
-        playlistService.save(playlist);
+        playlistService.addTrack(playlist, track);
 
         redirectAttributes.addFlashAttribute("success", "Трек добавлен в плейлист!");
         return "redirect:/";
@@ -113,4 +120,109 @@ public class PlaylistController {
             return ResponseEntity.status(500).build();
         }
     }
+
+    @GetMapping("/{id}/tracks")
+    @ResponseBody
+    public ResponseEntity<CursorPage<PlaylistEntryDto>> getTracks(@PathVariable Long id,
+                                                                  @RequestParam(required = false) Long after,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return playlistService.getPlaylistById(id)
+                .map(playlist -> ResponseEntity.ok(playlistService.getEntriesPage(playlist, after, size)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/summary")
+    @ResponseBody
+    public ResponseEntity<PlaylistSummaryDto> getSummary(@PathVariable Long id) {
+        return playlistService.getPlaylistById(id)
+                .map(playlist -> ResponseEntity.ok(playlistService.getSummary(playlist)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/entries")
+    public ResponseEntity<Map<String, Object>> insertTrack(@PathVariable Long id,
+                                                           @RequestParam Long trackId,
+                                                           @RequestParam(required = false) Long after,
+                                                           @CurrentUser User user) {
+        Optional<Playlist> playlist = playlistService.getPlaylistById(id);
+        if (playlist.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Плейлист не найден"));
+        }
+        if (!isOwner(playlist.get(), user)) {
+            return ResponseEntity.status(403).body(Map.of("error", "У вас нет доступа к этому плейлисту"));
+        }
+        Optional<Track> track = trackService.getTrackById(trackId);
+        if (track.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Трек не найден"));
+        }
+        try {
+            PlaylistTrack entry = playlistService.insertTrack(playlist.get(), track.get(), after);
+            return ResponseEntity.ok(Map.of("entryId", entry.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/tracks/bulk")
+    @ResponseBody
+    public ResponseEntity<?> bulkEdit(@PathVariable Long id,
+                                      @RequestBody PlaylistBulkEditDto request,
+                                      @CurrentUser User user) {
+        Optional<Playlist> playlist = playlistService.getPlaylistById(id);
+        if (playlist.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Плейлист не найден"));
+        }
+        if (!isOwner(playlist.get(), user)) {
+            return ResponseEntity.status(403).body(Map.of("error", "У вас нет доступа к этому плейлисту"));
+        }
+        try {
+            PlaylistBulkResultDto result = playlistService.bulkEdit(playlist.get(), request.add(), request.remove());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/entries/{entryId}/move")
+    public ResponseEntity<Map<String, Object>> moveEntry(@PathVariable Long id,
+                                                         @PathVariable Long entryId,
+                                                         @RequestParam(required = false) Long after,
+                                                         @CurrentUser User user) {
+        Optional<Playlist> playlist = playlistService.getPlaylistById(id);
+        if (playlist.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Плейлист не найден"));
+        }
+        if (!isOwner(playlist.get(), user)) {
+            return ResponseEntity.status(403).body(Map.of("error", "У вас нет доступа к этому плейлисту"));
+        }
+        try {
+            playlistService.moveEntry(playlist.get(), entryId, after);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}/entries/{entryId}")
+    public ResponseEntity<Map<String, Object>> removeEntry(@PathVariable Long id,
+                                                           @PathVariable Long entryId,
+                                                           @CurrentUser User user) {
+        Optional<Playlist> playlist = playlistService.getPlaylistById(id);
+        if (playlist.isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error", "Плейлист не найден"));
+        }
+        if (!isOwner(playlist.get(), user)) {
+            return ResponseEntity.status(403).body(Map.of("error", "У вас нет доступа к этому плейлисту"));
+        }
+        try {
+            playlistService.removeEntry(playlist.get(), entryId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private boolean isOwner(Playlist playlist, User user) {
+        return user != null && playlist.getUser().getId().equals(user.getId());
+    }
 }
@@ -0,0 +1,39 @@
+package ru.synergy.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.RecommendedTrackDto;
+import ru.synergy.model.User;
+import ru.synergy.service.TrackRecommendationService;
+
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+public class RecommendationController {
+    private static final int MAX_LIMIT = 100;
+
+    private final TrackRecommendationService trackRecommendationService;
+
+    @GetMapping("/tracks/{id}/similar")
+    @ResponseBody
+    public List<RecommendedTrackDto> similar(@PathVariable Long id, @RequestParam(defaultValue = "10") int size) {
+        return trackRecommendationService.similarTracks(id, Math.max(1, Math.min(size, MAX_LIMIT)));
+    }
+
+    @GetMapping("/recommendations")
+    @ResponseBody
+    public ResponseEntity<List<RecommendedTrackDto>> forYou(@RequestParam(defaultValue = "20") int size,
+                                                            @CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(trackRecommendationService.recommendFor(user, Math.max(1, Math.min(size, MAX_LIMIT))));
+    }
+}
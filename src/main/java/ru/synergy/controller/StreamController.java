@@ -0,0 +1,153 @@
+package ru.synergy.controller;
+
+import io.minio.errors.ErrorResponseException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.AudioObjectInfo;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.service.AudioStreamService;
+import ru.synergy.service.StreamTokenService;
+import ru.synergy.service.TrackService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Controller
+@RequiredArgsConstructor
+public class StreamController {
+    private static final String DEFAULT_CONTENT_TYPE = "audio/mpeg";
+
+    private final TrackService trackService;
+    private final AudioStreamService audioStreamService;
+    private final StreamTokenService streamTokenService;
+
+    @GetMapping("/tracks/{trackId}/stream-token")
+    @ResponseBody
+    public ResponseEntity<?> issueToken(@PathVariable Long trackId, @CurrentUser User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Пользователь не авторизован"));
+        }
+        if (trackService.getTrackById(trackId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Трек не найден"));
+        }
+        return streamTokenService.issue(user, trackId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Прослушивание доступно только по подписке")));
+    }
+
+    @GetMapping("/stream/{trackId}")
+    public void stream(@PathVariable Long trackId,
+                       @RequestParam(required = false) String token,
+                       @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                       @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                       HttpServletResponse response) throws Exception {
+        if (!streamTokenService.verify(trackId, token)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Ссылка на поток недействительна или истекла");
+            return;
+        }
+
+        Optional<Track> trackOpt = trackService.getTrackById(trackId);
+        if (trackOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Трек не найден");
+            return;
+        }
+
+        AudioObjectInfo object;
+        try {
+            object = audioStreamService.describe(audioStreamService.objectNameOf(trackOpt.get()));
+        } catch (ErrorResponseException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Аудиофайл не найден");
+            return;
+        }
+
+        long length = object.length();
+        String contentType = object.contentType() != null ? object.contentType() : DEFAULT_CONTENT_TYPE;
+        String etag = object.etag() != null ? "\"" + object.etag() + "\"" : null;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+
+        boolean rangeApplies = rangeHeader != null && !rangeHeader.isBlank() && (ifRange == null || ifRange.equals(etag));
+        if (!rangeApplies) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            audioStreamService.copyRange(object, 0, length, response.getOutputStream());
+            return;
+        }
+
+        long[][] bounds = parseBounds(rangeHeader, length);
+        if (bounds == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (bounds.length == 1) {
+            long start = bounds[0][0];
+            long end = bounds[0][1];
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            audioStreamService.copyRange(object, start, end - start + 1, response.getOutputStream());
+            return;
+        }
+
+        String boundary = UUID.randomUUID().toString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        ServletOutputStream out = response.getOutputStream();
+        for (long[] range : bounds) {
+            String partHeader = "\r\n--" + boundary + "\r\n" +
+                    HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n" +
+                    HttpHeaders.CONTENT_RANGE + ": " + contentRange(range[0], range[1], length) + "\r\n\r\n";
+            out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+            audioStreamService.copyRange(object, range[0], range[1] - range[0] + 1, out);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Разбирает заголовок Range в пары [start, end]; возвращает null, если хотя бы один диапазон
+     * не удовлетворим для объекта длиной {@code length} (HttpRange сам не отвергает start за концом).
+     */
+    private static long[][] parseBounds(String rangeHeader, long length) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            long[][] bounds = new long[ranges.size()][];
+            for (int i = 0; i < ranges.size(); i++) {
+                long start = ranges.get(i).getRangeStart(length);
+                long end = ranges.get(i).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    return null;
+                }
+                bounds[i] = new long[]{start, end};
+            }
+            return bounds;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+}
@@ -1,37 +1,46 @@
 package ru.synergy.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.ModelAttribute;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.synergy.dto.TrackDto;
+import ru.synergy.dto.UploadJobDto;
+import ru.synergy.dto.UploadedTrackDto;
 import ru.synergy.model.Track;
+import ru.synergy.service.CatalogImportService;
 import ru.synergy.service.TrackService;
+import ru.synergy.service.UploadJobService;
+
+import java.security.Principal;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 public class UploadController {
     private final TrackService trackService;
+    private final UploadJobService uploadJobService;
+    private final CatalogImportService catalogImportService;
 
     @PostMapping("/upload-track")
     public String uploadTrack(
             @ModelAttribute TrackDto trackDto,
             @RequestParam("file") MultipartFile file,
-            Model model) {
+            Model model,
+            Principal principal) {
         try {
             Track track = new Track();
             track.setTitle(trackDto.title());
             track.setArtist(trackDto.artist());
             track.setGenres(trackDto.genre());
 
-            Track savedTrack = trackService.saveTrack(track, file);
+            String jobId = uploadJobService.submit(track, file, principal.getName());
 
-            model.addAttribute("success", "Трек успешно загружен!");
-            model.addAttribute("track", savedTrack);
+            model.addAttribute("success", "Трек принят в обработку");
+            model.addAttribute("jobId", jobId);
 
         } catch (Exception e) {
             model.addAttribute("error", "Ошибка при загрузке: " + e.getMessage());
@@ -39,6 +48,52 @@ public class UploadController {
         return "upload-result";
     }
 
+    @GetMapping("/upload-jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<UploadJobDto> getUploadJob(@PathVariable String id, Principal principal) {
+        return uploadJobService.getJob(id, principal.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/upload-track/stream")
+    @ResponseBody
+    public ResponseEntity<?> uploadTrackStream(
+            @RequestParam String title,
+            @RequestParam String artist,
+            @RequestParam(required = false) String genre,
+            @RequestParam String filename,
+            HttpServletRequest request) {
+        try {
+            Track track = new Track();
+            track.setTitle(title);
+            track.setArtist(artist);
+            track.setGenres(genre);
+
+            Track saved = trackService.saveTrack(track, request.getInputStream(), filename, request.getContentType());
+            return ResponseEntity.ok(new UploadedTrackDto(saved.getId(), saved.getTitle(), saved.getArtist(),
+                    saved.getFileUrl(), saved.getChecksum()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Ошибка при загрузке: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/upload-tracks/bulk")
+    @ResponseBody
+    public ResponseEntity<?> importCatalog(HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(catalogImportService.importArchive(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Ошибка при импорте: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/upload")
     public String showUploadForm() {
         return "upload-form";
@@ -1,14 +1,22 @@
 package ru.synergy.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import ru.synergy.config.CurrentUser;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.User;
 import ru.synergy.service.UserService;
 
 import java.security.Principal;
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
@@ -16,12 +24,12 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping("/users/{id}/follow")
-    public String follow(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
+    public String follow(@PathVariable Long id, Principal principal, @CurrentUser User current,
+                         RedirectAttributes redirectAttributes) {
         if (principal == null) {
             redirectAttributes.addFlashAttribute("error", "Авторизуйтесь, чтобы подписываться");
             return "redirect:/login";
         }
-        User current = userService.findByUsername(principal.getName()).orElse(null);
         User target = userService.findById(id).orElse(null);
         if (current == null || target == null) {
             redirectAttributes.addFlashAttribute("error", "Пользователь не найден");
@@ -33,12 +41,12 @@ public class UserController {
     }
 
     @PostMapping("/users/{id}/unfollow")
-    public String unfollow(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
+    public String unfollow(@PathVariable Long id, Principal principal, @CurrentUser User current,
+                           RedirectAttributes redirectAttributes) {
         if (principal == null) {
             redirectAttributes.addFlashAttribute("error", "Авторизуйтесь, чтобы отписываться");
             return "redirect:/login";
         }
-        User current = userService.findByUsername(principal.getName()).orElse(null);
         User target = userService.findById(id).orElse(null);
         if (current == null || target == null) {
             redirectAttributes.addFlashAttribute("error", "Пользователь не найден");
@@ -48,4 +56,32 @@ public class UserController {
         redirectAttributes.addFlashAttribute("success", "Вы отписались");
         return "redirect:/";
     }
+
+    @GetMapping("/users/suggested")
+    @ResponseBody
+    public List<UserSummaryDto> suggested(@RequestParam(defaultValue = "10") int size, @CurrentUser User current) {
+        return userService.getSuggestedUsers(current, size);
+    }
+
+    @GetMapping("/users/{id}/followers")
+    @ResponseBody
+    public ResponseEntity<CursorPage<UserSummaryDto>> followers(@PathVariable Long id,
+                                                               @RequestParam(required = false) Long after,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        if (userService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(userService.getFollowersPage(id, after, size));
+    }
+
+    @GetMapping("/users/{id}/following")
+    @ResponseBody
+    public ResponseEntity<CursorPage<UserSummaryDto>> following(@PathVariable Long id,
+                                                               @RequestParam(required = false) Long after,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        if (userService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(userService.getFollowingPage(id, after, size));
+    }
 }
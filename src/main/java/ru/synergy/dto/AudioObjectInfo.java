@@ -0,0 +1,12 @@
+package ru.synergy.dto;
+
+/**
+ * Metadata of an audio object stored in MinIO
+ */
+public record AudioObjectInfo(
+        String objectName,
+        long length,
+        String etag,
+        String contentType
+) {
+}
@@ -0,0 +1,9 @@
+package ru.synergy.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk catalog import
+ */
+public record CatalogImportResultDto(int imported, int failed, List<String> errors) {
+}
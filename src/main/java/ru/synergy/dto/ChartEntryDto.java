@@ -0,0 +1,12 @@
+package ru.synergy.dto;
+
+/**
+ * Chart position; {@code trackId} and {@code artist} are only set in the track chart
+ */
+public record ChartEntryDto(
+        Long trackId,
+        String name,
+        String artist,
+        long plays
+) {
+}
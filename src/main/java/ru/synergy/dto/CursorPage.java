@@ -0,0 +1,15 @@
+package ru.synergy.dto;
+
+import java.util.List;
+
+/**
+ * Page of a keyset-paginated listing; {@code nextCursor} is null on the last page
+ */
+public record CursorPage<T>(
+        List<T> items,
+        Long nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.synergy.dto;
+
+import ru.synergy.model.PlayEventType;
+
+/**
+ * Body of {@code POST /plays} sent by the player
+ */
+public record PlayEventRequest(
+        Long trackId,
+        PlayEventType type,
+        Integer positionSeconds
+) {
+}
@@ -0,0 +1,9 @@
+package ru.synergy.dto;
+
+import java.util.List;
+
+/**
+ * Request body of a bulk playlist edit: track ids to append and track ids to remove
+ */
+public record PlaylistBulkEditDto(List<Long> add, List<Long> remove) {
+}
@@ -0,0 +1,9 @@
+package ru.synergy.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk playlist edit; {@code skipped} counts duplicates, {@code missing} lists unknown track ids
+ */
+public record PlaylistBulkResultDto(int added, int removed, int skipped, List<Long> missing) {
+}
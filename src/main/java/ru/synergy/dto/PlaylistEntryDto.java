@@ -0,0 +1,15 @@
+package ru.synergy.dto;
+
+/**
+ * Track of a playlist page together with its entry id, which is also the page cursor
+ */
+public record PlaylistEntryDto(
+        Long entryId,
+        Long trackId,
+        String title,
+        String artist,
+        String genres,
+        Integer durationSeconds,
+        Double averageRating
+) {
+}
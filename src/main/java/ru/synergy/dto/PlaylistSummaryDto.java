@@ -0,0 +1,20 @@
+package ru.synergy.dto;
+
+/**
+ * Playlist header read from the precomputed counters, without touching its tracks
+ */
+public record PlaylistSummaryDto(
+        Long id,
+        String name,
+        long trackCount,
+        long totalDurationSeconds
+) {
+    public String formattedDuration() {
+        long hours = totalDurationSeconds / 3600;
+        long minutes = totalDurationSeconds % 3600 / 60;
+        long seconds = totalDurationSeconds % 60;
+        return hours > 0
+                ? String.format("%d:%02d:%02d", hours, minutes, seconds)
+                : String.format("%d:%02d", minutes, seconds);
+    }
+}
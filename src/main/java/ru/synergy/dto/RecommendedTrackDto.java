@@ -0,0 +1,12 @@
+package ru.synergy.dto;
+
+/**
+ * Track suggested by the co-occurrence recommender with its similarity score
+ */
+public record RecommendedTrackDto(
+        Long id,
+        String title,
+        String artist,
+        double score
+) {
+}
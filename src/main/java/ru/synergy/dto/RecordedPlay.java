@@ -0,0 +1,15 @@
+package ru.synergy.dto;
+
+import ru.synergy.model.PlayEventType;
+
+/**
+ * Accepted play event on its way from the request thread to the play_events table
+ */
+public record RecordedPlay(
+        long userId,
+        long trackId,
+        PlayEventType type,
+        int positionSeconds,
+        long occurredAt
+) {
+}
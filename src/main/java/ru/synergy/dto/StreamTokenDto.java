@@ -0,0 +1,9 @@
+package ru.synergy.dto;
+
+import java.time.Instant;
+
+/**
+ * Signed stream URL handed to the player, valid until {@code expiresAt}
+ */
+public record StreamTokenDto(Long trackId, String url, Instant expiresAt) {
+}
@@ -0,0 +1,22 @@
+package ru.synergy.dto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Cached entitlement of a user; a status whose end date has passed counts as inactive even before the sweeper runs
+ */
+public record SubscriptionStatus(
+        boolean active,
+        LocalDateTime endDate
+) {
+    public static final SubscriptionStatus NONE = new SubscriptionStatus(false, null);
+
+    public boolean isActiveAt(LocalDateTime now) {
+        return active && endDate != null && endDate.isAfter(now);
+    }
+
+    public long daysLeftAt(LocalDateTime now) {
+        return isActiveAt(now) ? Math.max(0, ChronoUnit.DAYS.between(now, endDate)) : 0;
+    }
+}
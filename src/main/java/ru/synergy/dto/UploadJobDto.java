@@ -0,0 +1,14 @@
+package ru.synergy.dto;
+
+/**
+ * Status of an asynchronous track upload
+ */
+public record UploadJobDto(
+        String id,
+        String status,
+        long bytesUploaded,
+        long bytesTotal,
+        Long trackId,
+        String error
+) {
+}
@@ -0,0 +1,7 @@
+package ru.synergy.dto;
+
+/**
+ * Result of a streaming track upload
+ */
+public record UploadedTrackDto(Long id, String title, String artist, String fileUrl, String checksum) {
+}
@@ -0,0 +1,17 @@
+package ru.synergy.dto;
+
+import ru.synergy.model.User;
+
+import java.util.List;
+
+/**
+ * Page of the admin user directory ordered by username; {@code nextCursor} is the last username shown, null on the last page
+ */
+public record UserDirectoryPage(
+        List<User> users,
+        String nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
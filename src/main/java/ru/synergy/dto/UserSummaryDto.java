@@ -0,0 +1,10 @@
+package ru.synergy.dto;
+
+/**
+ * Public view of a user in follower and following listings
+ */
+public record UserSummaryDto(
+        Long id,
+        String username
+) {
+}
@@ -0,0 +1,5 @@
+package ru.synergy.model;
+
+public enum ChartCategory {
+    TRACKS, ARTISTS, GENRES
+}
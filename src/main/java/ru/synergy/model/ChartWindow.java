@@ -0,0 +1,28 @@
+package ru.synergy.model;
+
+import java.time.Duration;
+
+/**
+ * Sliding window of a top chart; the window slides one bucket at a time
+ */
+public enum ChartWindow {
+    HOUR(Duration.ofMinutes(1), 60),
+    DAY(Duration.ofHours(1), 24),
+    WEEK(Duration.ofHours(6), 28);
+
+    private final Duration bucket;
+    private final int buckets;
+
+    ChartWindow(Duration bucket, int buckets) {
+        this.bucket = bucket;
+        this.buckets = buckets;
+    }
+
+    public Duration getBucket() {
+        return bucket;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+}
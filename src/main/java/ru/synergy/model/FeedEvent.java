@@ -0,0 +1,57 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something a user did that their followers see in the feed; names are copied so the feed renders without joins
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "feed_events", indexes = {
+        @Index(name = "idx_feed_events_actor", columnList = "actor_id, id"),
+        @Index(name = "idx_feed_events_playlist", columnList = "playlist_id"),
+        @Index(name = "idx_feed_events_created", columnList = "created_at")
+})
+public class FeedEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private FeedEventType type;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    private String actorName;
+
+    @Column(name = "playlist_id")
+    private Long playlistId;
+
+    private String playlistName;
+
+    private Long trackId;
+
+    private String trackTitle;
+
+    private Integer rating;
+
+    private Integer trackCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Last follower id the event has been copied to; null once every follower has it
+     */
+    @Column(name = "fan_out_cursor")
+    private Long fanOutCursor;
+}
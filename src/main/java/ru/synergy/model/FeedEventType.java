@@ -0,0 +1,5 @@
+package ru.synergy.model;
+
+public enum FeedEventType {
+    PLAYLIST_CREATED, TRACK_ADDED, TRACKS_ADDED, REVIEW_POSTED
+}
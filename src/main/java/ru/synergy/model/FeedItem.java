@@ -0,0 +1,25 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entry of one user's materialized feed; the primary key (user_id, event_id) is the feed's keyset index
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "feed_items", indexes = {
+        @Index(name = "idx_feed_items_event", columnList = "event_id"),
+        @Index(name = "idx_feed_items_user_actor", columnList = "user_id, actor_id")
+})
+public class FeedItem {
+    @EmbeddedId
+    private FeedItemId id;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+}
@@ -0,0 +1,40 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw playback event; rows are written in batches by {@link ru.synergy.service.PlayEventService}, never through JPA
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "play_events", indexes = {
+        @Index(name = "idx_play_events_track_time", columnList = "track_id, occurred_at"),
+        @Index(name = "idx_play_events_user_time", columnList = "user_id, occurred_at")
+})
+public class PlayEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long trackId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PlayEventType type;
+
+    private int positionSeconds;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
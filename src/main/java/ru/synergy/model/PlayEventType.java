@@ -0,0 +1,5 @@
+package ru.synergy.model;
+
+public enum PlayEventType {
+    START, PROGRESS, COMPLETE
+}
@@ -6,16 +6,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "playlists")
+@Table(name = "playlists", indexes = @Index(name = "idx_playlists_user", columnList = "user_id"))
 public class Playlist {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,15 +22,15 @@ public class Playlist {
     @NotNull
     private String name;
 
-    @ManyToMany(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
-    @JoinTable(
-            name = "playlist_tracks",
-            joinColumns = @JoinColumn(name = "playlist_id"),
-            inverseJoinColumns = @JoinColumn(name = "tracks_id")
-    )
-    private List<Track> tracks = new ArrayList<>();
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long trackCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long totalDurationSeconds;
 }
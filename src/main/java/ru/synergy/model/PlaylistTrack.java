@@ -0,0 +1,42 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of a playlist; entries are ordered by a sparse {@code position} so inserts and moves update a single row
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "playlist_entries", indexes = {
+        @Index(name = "idx_playlist_entries_position", columnList = "playlist_id, position"),
+        @Index(name = "idx_playlist_entries_track", columnList = "playlist_id, track_id")
+})
+public class PlaylistTrack {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlist_entries_seq")
+    @SequenceGenerator(name = "playlist_entries_seq", sequenceName = "playlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "playlist_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Playlist playlist;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "track_id", nullable = false)
+    private Track track;
+
+    @Column(nullable = false)
+    private long position;
+
+    private LocalDateTime addedAt = LocalDateTime.now();
+}
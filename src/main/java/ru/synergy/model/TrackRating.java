@@ -0,0 +1,32 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "track_ratings")
+public class TrackRating {
+    @Id
+    private Long trackId;
+
+    private long ratingCount;
+    private long ratingSum;
+    private long stars1;
+    private long stars2;
+    private long stars3;
+    private long stars4;
+    private long stars5;
+
+    public Double getAverage() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
+    public long[] getHistogram() {
+        return new long[]{stars1, stars2, stars3, stars4, stars5};
+    }
+}
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "track_reviews")
+@Table(name = "track_reviews", indexes = @Index(name = "idx_track_reviews_user", columnList = "user_id, id"))
 public class TrackReview {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,20 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "user_follows", indexes = @Index(name = "idx_user_follows_followed", columnList = "followed_id, follower_id"))
+public class UserFollow {
+    @EmbeddedId
+    private UserFollowId id;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,23 @@
+package ru.synergy.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class UserFollowId implements Serializable {
+    @Column(name = "follower_id", nullable = false)
+    private Long followerId;
+
+    @Column(name = "followed_id", nullable = false)
+    private Long followedId;
+}
@@ -0,0 +1,21 @@
+package ru.synergy.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "user_follow_stats", indexes = {
+        @Index(name = "idx_user_follow_stats_followers", columnList = "followers_count DESC, user_id")
+})
+public class UserFollowStats {
+    @Id
+    private Long userId;
+
+    private long followersCount;
+    private long followingCount;
+}
@@ -15,7 +15,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user_subscription")
+@Table(name = "user_subscription", indexes = {
+        @Index(name = "idx_user_subscription_user_active", columnList = "user_id, is_active"),
+        @Index(name = "idx_user_subscription_active_end", columnList = "is_active, end_date")
+})
 public class UserSubscription {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
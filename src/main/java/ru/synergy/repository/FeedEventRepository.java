@@ -0,0 +1,34 @@
+package ru.synergy.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.synergy.model.FeedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FeedEventRepository extends JpaRepository<FeedEvent, Long> {
+    @Query("SELECT e FROM FeedItem i JOIN FeedEvent e ON e.id = i.id.eventId " +
+            "WHERE i.id.userId = :userId AND i.id.eventId < :beforeId ORDER BY i.id.eventId DESC")
+    List<FeedEvent> findFeedPage(Long userId, Long beforeId, Pageable pageable);
+
+    @Query("SELECT e.id FROM FeedEvent e WHERE e.fanOutCursor IS NOT NULL ORDER BY e.id")
+    List<Long> findPendingFanOutIds(Pageable pageable);
+
+    @Query("SELECT MAX(e.id) FROM FeedEvent e WHERE e.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM FeedEvent e WHERE e.actorId = :actorId")
+    int deleteByActor(Long actorId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEvent e WHERE e.playlistId = :playlistId")
+    int deleteByPlaylist(Long playlistId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEvent e WHERE e.id <= :maxId")
+    int deleteUpTo(Long maxId);
+}
@@ -0,0 +1,50 @@
+package ru.synergy.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.synergy.model.FeedItem;
+import ru.synergy.model.FeedItemId;
+
+public interface FeedItemRepository extends JpaRepository<FeedItem, FeedItemId> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "feed_items"))
+    @Query(value = "INSERT INTO feed_items (user_id, event_id, actor_id) " +
+            "SELECT f.follower_id, :eventId, :actorId FROM user_follows f WHERE f.followed_id = :actorId " +
+            "AND f.follower_id > :afterFollowerId AND f.follower_id <= :lastFollowerId " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_items i WHERE i.user_id = f.follower_id AND i.event_id = :eventId)",
+            nativeQuery = true)
+    int fanOut(Long eventId, Long actorId, Long afterFollowerId, Long lastFollowerId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "feed_items"))
+    @Query(value = "INSERT INTO feed_items (user_id, event_id, actor_id) " +
+            "SELECT :userId, e.id, e.actor_id FROM feed_events e WHERE e.actor_id = :actorId " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_items i WHERE i.user_id = :userId AND i.event_id = e.id) " +
+            "ORDER BY e.id DESC LIMIT :limit", nativeQuery = true)
+    int backfill(Long userId, Long actorId, int limit);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem i WHERE i.id.userId = :userId AND i.actorId = :actorId")
+    int deleteByUserAndActor(Long userId, Long actorId);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem i WHERE i.id.userId = :userId")
+    int deleteByUser(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem i WHERE i.id.eventId IN (SELECT e.id FROM FeedEvent e WHERE e.actorId = :actorId)")
+    int deleteByActor(Long actorId);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem i WHERE i.id.eventId IN " +
+            "(SELECT e.id FROM FeedEvent e WHERE e.playlistId = :playlistId)")
+    int deleteByPlaylist(Long playlistId);
+
+    @Modifying
+    @Query("DELETE FROM FeedItem i WHERE i.id.eventId <= :maxEventId")
+    int deleteUpTo(Long maxEventId);
+}
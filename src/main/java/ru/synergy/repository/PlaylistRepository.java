@@ -1,13 +1,18 @@
 package ru.synergy.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.synergy.model.Playlist;
 import ru.synergy.model.User;
 
-import java.util.Collection;
 import java.util.List;
 
 public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     List<Playlist> findByUser(User user);
-    List<Playlist> findByUserIn(Collection<User> users);
+
+    @Modifying
+    @Query("UPDATE Playlist p SET p.trackCount = p.trackCount + :countDelta, " +
+            "p.totalDurationSeconds = p.totalDurationSeconds + :durationDelta WHERE p.id = :playlistId")
+    int adjustSummary(Long playlistId, long countDelta, long durationDelta);
 }
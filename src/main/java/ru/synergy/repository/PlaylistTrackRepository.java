@@ -0,0 +1,66 @@
+package ru.synergy.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.synergy.model.PlaylistTrack;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PlaylistTrackRepository extends JpaRepository<PlaylistTrack, Long> {
+    @Query("SELECT e FROM PlaylistTrack e JOIN FETCH e.track WHERE e.playlist.id = :playlistId " +
+            "ORDER BY e.position, e.id")
+    List<PlaylistTrack> findFirstPage(Long playlistId, Pageable pageable);
+
+    @Query("SELECT e FROM PlaylistTrack e JOIN FETCH e.track WHERE e.playlist.id = :playlistId " +
+            "AND (e.position > :position OR (e.position = :position AND e.id > :entryId)) ORDER BY e.position, e.id")
+    List<PlaylistTrack> findPageAfter(Long playlistId, long position, Long entryId, Pageable pageable);
+
+    @Query("SELECT COALESCE(t.durationSeconds, 0) FROM PlaylistTrack e JOIN e.track t " +
+            "WHERE e.id = :entryId AND e.playlist.id = :playlistId")
+    Optional<Integer> findDuration(Long playlistId, Long entryId);
+
+    @Query("SELECT e.track.id FROM PlaylistTrack e WHERE e.playlist.user.id = :userId ORDER BY e.id DESC")
+    List<Long> findRecentTrackIdsOfUser(Long userId, Pageable pageable);
+
+    @Query("SELECT MAX(e.position) FROM PlaylistTrack e WHERE e.playlist.id = :playlistId")
+    Long findMaxPosition(Long playlistId);
+
+    @Query("SELECT MIN(e.position) FROM PlaylistTrack e WHERE e.playlist.id = :playlistId AND e.position > :position")
+    Long findNextPosition(Long playlistId, long position);
+
+    @Query("SELECT e.position FROM PlaylistTrack e WHERE e.id = :entryId AND e.playlist.id = :playlistId")
+    Optional<Long> findPosition(Long playlistId, Long entryId);
+
+    @Modifying
+    @Query("UPDATE PlaylistTrack e SET e.position = :position WHERE e.id = :entryId AND e.playlist.id = :playlistId")
+    int updatePosition(Long playlistId, Long entryId, long position);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack e WHERE e.id = :entryId AND e.playlist.id = :playlistId")
+    int deleteEntry(Long playlistId, Long entryId);
+
+    @Query("SELECT DISTINCT e.track.id FROM PlaylistTrack e WHERE e.playlist.id = :playlistId AND e.track.id IN :trackIds")
+    List<Long> findTrackIdsAmong(Long playlistId, Collection<Long> trackIds);
+
+    @Query("SELECT COALESCE(SUM(t.durationSeconds), 0) FROM PlaylistTrack e JOIN e.track t " +
+            "WHERE e.playlist.id = :playlistId AND t.id IN :trackIds")
+    long sumDurationOfTracks(Long playlistId, Collection<Long> trackIds);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistTrack e WHERE e.playlist.id = :playlistId AND e.track.id IN :trackIds")
+    int deleteTracks(Long playlistId, Collection<Long> trackIds);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "playlist_entries"))
+    @Query(value = "UPDATE playlist_entries e SET position = r.rn * :gap FROM " +
+            "(SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn FROM playlist_entries " +
+            "WHERE playlist_id = :playlistId) r WHERE e.id = r.id", nativeQuery = true)
+    int rebalance(Long playlistId, long gap);
+}
@@ -0,0 +1,44 @@
+package ru.synergy.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.synergy.model.TrackRating;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TrackRatingRepository extends JpaRepository<TrackRating, Long> {
+    @Modifying
+    @Query("UPDATE TrackRating r SET r.ratingCount = r.ratingCount + 1, r.ratingSum = r.ratingSum + :rating, " +
+            "r.stars1 = r.stars1 + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "r.stars2 = r.stars2 + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "r.stars3 = r.stars3 + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "r.stars4 = r.stars4 + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "r.stars5 = r.stars5 + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+            "WHERE r.trackId = :trackId")
+    int increment(Long trackId, int rating);
+
+    @Modifying
+    @Query(value = "INSERT INTO track_ratings " +
+            "(track_id, rating_count, rating_sum, stars1, stars2, stars3, stars4, stars5) " +
+            "SELECT t.id, 0, 0, 0, 0, 0, 0, 0 FROM tracks t WHERE t.id IN :trackIds " +
+            "AND NOT EXISTS (SELECT 1 FROM track_ratings r WHERE r.track_id = t.id)", nativeQuery = true)
+    int insertMissing(Collection<Long> trackIds);
+
+    @Modifying
+    @Query("UPDATE TrackRating r SET " +
+            "r.ratingCount = (SELECT COUNT(tr.rating) FROM TrackReview tr WHERE tr.track.id = r.trackId), " +
+            "r.ratingSum = (SELECT COALESCE(SUM(tr.rating), 0) FROM TrackReview tr WHERE tr.track.id = r.trackId), " +
+            "r.stars1 = (SELECT COUNT(tr) FROM TrackReview tr WHERE tr.track.id = r.trackId AND tr.rating = 1), " +
+            "r.stars2 = (SELECT COUNT(tr) FROM TrackReview tr WHERE tr.track.id = r.trackId AND tr.rating = 2), " +
+            "r.stars3 = (SELECT COUNT(tr) FROM TrackReview tr WHERE tr.track.id = r.trackId AND tr.rating = 3), " +
+            "r.stars4 = (SELECT COUNT(tr) FROM TrackReview tr WHERE tr.track.id = r.trackId AND tr.rating = 4), " +
+            "r.stars5 = (SELECT COUNT(tr) FROM TrackReview tr WHERE tr.track.id = r.trackId AND tr.rating = 5) " +
+            "WHERE r.trackId IN :trackIds")
+    int recompute(Collection<Long> trackIds);
+
+    @Query("SELECT t.id FROM Track t WHERE NOT EXISTS (SELECT 1 FROM TrackRating r WHERE r.trackId = t.id) ORDER BY t.id")
+    List<Long> findTrackIdsWithoutRating(Pageable pageable);
+}
@@ -1,5 +1,6 @@
 package ru.synergy.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.synergy.model.Track;
@@ -11,8 +12,13 @@ public interface TrackRepository extends JpaRepository<Track, Long> {
     @Query("SELECT t FROM Track t WHERE " +
             "LOWER(t.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(t.artist) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(t.genres) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Track> searchTracks(String query);
+            "LOWER(t.genres) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY t.id")
+    List<Track> searchTracks(String query, Pageable pageable);
 
     Optional<Track> findByFileUrl(String fileUrl);
+
+    List<Track> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("SELECT t.id FROM Track t WHERE t.id > :afterId ORDER BY t.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
 }
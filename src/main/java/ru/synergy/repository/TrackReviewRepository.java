@@ -1,15 +1,20 @@
 package ru.synergy.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.synergy.model.TrackReview;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TrackReviewRepository extends JpaRepository<TrackReview, Long> {
     List<TrackReview> findByTrackId(Long trackId);
 
-    @Query("SELECT avg(tr.rating) FROM TrackReview tr WHERE tr.track.id = :trackId")
-    Double findAverageRating(Long trackId);
+    @Query("SELECT tr FROM TrackReview tr JOIN FETCH tr.user WHERE tr.track.id IN :trackIds ORDER BY tr.createdAt")
+    List<TrackReview> findWithUserByTrackIdIn(Collection<Long> trackIds);
+
+    @Query("SELECT tr.track.id FROM TrackReview tr WHERE tr.user.id = :userId AND tr.rating >= :minRating ORDER BY tr.id DESC")
+    List<Long> findLikedTrackIds(Long userId, int minRating, Pageable pageable);
 
 }
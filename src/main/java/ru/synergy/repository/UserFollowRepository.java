@@ -0,0 +1,50 @@
+package ru.synergy.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.model.UserFollow;
+import ru.synergy.model.UserFollowId;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserFollowRepository extends JpaRepository<UserFollow, UserFollowId> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_follows"))
+    @Query(value = "INSERT INTO user_follows (follower_id, followed_id, created_at) " +
+            "VALUES (:followerId, :followedId, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (follower_id, followed_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(Long followerId, Long followedId);
+
+    @Modifying
+    @Query("DELETE FROM UserFollow f WHERE f.id.followerId = :followerId AND f.id.followedId = :followedId")
+    int deleteFollow(Long followerId, Long followedId);
+
+    @Modifying
+    @Query("DELETE FROM UserFollow f WHERE f.id.followerId = :userId OR f.id.followedId = :userId")
+    int deleteAllOfUser(Long userId);
+
+    @Query("SELECT f.id.followedId FROM UserFollow f WHERE f.id.followerId = :followerId AND f.id.followedId IN :userIds")
+    List<Long> findFollowedIdsAmong(Long followerId, Collection<Long> userIds);
+
+    @Query("SELECT f.id.followerId FROM UserFollow f " +
+            "WHERE f.id.followedId = :followedId AND f.id.followerId > :afterId ORDER BY f.id.followerId")
+    List<Long> findFollowerIdsAfter(Long followedId, Long afterId, Pageable pageable);
+
+    @Query("SELECT new ru.synergy.dto.UserSummaryDto(u.id, u.username) FROM UserFollow f " +
+            "JOIN User u ON u.id = f.id.followerId " +
+            "WHERE f.id.followedId = :userId AND f.id.followerId > :afterId ORDER BY f.id.followerId")
+    List<UserSummaryDto> findFollowersPage(Long userId, Long afterId, Pageable pageable);
+
+    @Query("SELECT new ru.synergy.dto.UserSummaryDto(u.id, u.username) FROM UserFollow f " +
+            "JOIN User u ON u.id = f.id.followedId " +
+            "WHERE f.id.followerId = :userId AND f.id.followedId > :afterId ORDER BY f.id.followedId")
+    List<UserSummaryDto> findFollowingPage(Long userId, Long afterId, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package ru.synergy.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.model.UserFollowStats;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserFollowStatsRepository extends JpaRepository<UserFollowStats, Long> {
+    @Query("SELECT new ru.synergy.dto.UserSummaryDto(u.id, u.username) FROM UserFollowStats s " +
+            "JOIN User u ON u.id = s.userId " +
+            "WHERE s.userId <> :userId AND NOT EXISTS (SELECT 1 FROM UserFollow f " +
+            "WHERE f.id.followerId = :userId AND f.id.followedId = s.userId) " +
+            "ORDER BY s.followersCount DESC, s.userId")
+    List<UserSummaryDto> findMostFollowedNotFollowedBy(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE UserFollowStats s SET s.followersCount = s.followersCount + :delta WHERE s.userId = :userId")
+    int adjustFollowers(Long userId, long delta);
+
+    @Modifying
+    @Query("UPDATE UserFollowStats s SET s.followingCount = s.followingCount + :delta WHERE s.userId = :userId")
+    int adjustFollowing(Long userId, long delta);
+
+    @Modifying
+    @Query("UPDATE UserFollowStats s SET s.followersCount = s.followersCount - 1 WHERE s.userId IN " +
+            "(SELECT f.id.followedId FROM UserFollow f WHERE f.id.followerId = :userId)")
+    int decrementFollowersOfFollowed(Long userId);
+
+    @Modifying
+    @Query("UPDATE UserFollowStats s SET s.followingCount = s.followingCount - 1 WHERE s.userId IN " +
+            "(SELECT f.id.followerId FROM UserFollow f WHERE f.id.followedId = :userId)")
+    int decrementFollowingOfFollowers(Long userId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_follow_stats (user_id, followers_count, following_count) " +
+            "SELECT u.id, 0, 0 FROM logins u WHERE u.id IN :userIds " +
+            "AND NOT EXISTS (SELECT 1 FROM user_follow_stats s WHERE s.user_id = u.id)", nativeQuery = true)
+    int insertMissing(Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE UserFollowStats s SET " +
+            "s.followersCount = (SELECT COUNT(f) FROM UserFollow f WHERE f.id.followedId = s.userId), " +
+            "s.followingCount = (SELECT COUNT(f) FROM UserFollow f WHERE f.id.followerId = s.userId) " +
+            "WHERE s.userId IN :userIds")
+    int recompute(Collection<Long> userIds);
+
+    @Query("SELECT u.id FROM User u WHERE NOT EXISTS (SELECT 1 FROM UserFollowStats s WHERE s.userId = u.id) ORDER BY u.id")
+    List<Long> findUserIdsWithoutStats(Pageable pageable);
+}
@@ -1,10 +1,34 @@
 package ru.synergy.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT new ru.synergy.dto.UserSummaryDto(u.id, u.username) FROM User u WHERE u.id IN :ids")
+    List<UserSummaryDto> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    /**
+     * Prefix search walking idx_logins_username_c; comparisons use the "C" collation so that
+     * LIKE, the keyset predicate and the sort are all served by that index
+     */
+    @Query(value = "SELECT * FROM logins WHERE username COLLATE \"C\" LIKE :pattern ESCAPE '\\' " +
+            "AND username COLLATE \"C\" > :afterUsername ORDER BY username COLLATE \"C\"",
+            nativeQuery = true)
+    List<User> findDirectoryPage(String pattern, String afterUsername, Pageable pageable);
 }
@@ -1,11 +1,27 @@
 package ru.synergy.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.synergy.model.User;
 import ru.synergy.model.UserSubscription;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserSubscriptionRepository extends JpaRepository<UserSubscription, Long> {
     Optional<UserSubscription> findByUserAndIsActive(User user, boolean isActive);
+
+    @Query("SELECT s.id FROM UserSubscription s WHERE s.isActive = true AND s.endDate <= :now ORDER BY s.endDate")
+    List<Long> findExpiredActiveIds(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT s.user.id FROM UserSubscription s WHERE s.id IN :ids")
+    List<Long> findUserIdsByIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE UserSubscription s SET s.isActive = false WHERE s.id IN :ids")
+    int deactivate(Collection<Long> ids);
 }
@@ -0,0 +1,338 @@
+package ru.synergy.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.synergy.dto.AudioObjectInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+public class AudioDiskCache {
+    private static final Pattern CACHE_FILE = Pattern.compile(
+            "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\.(audio|meta|part)");
+
+    @Value("${stream.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${stream.cache.dir:${java.io.tmpdir}/msp-audio-cache}")
+    private String directory;
+
+    @Value("${stream.cache.max-size:2147483648}")
+    private long maxSize = 2L * 1024 * 1024 * 1024;
+
+    @Value("${stream.cache.max-object-size:209715200}")
+    private long maxObjectSize = 200L * 1024 * 1024;
+
+    @Value("${stream.cache.revalidate-after:PT1M}")
+    private Duration revalidateAfter = Duration.ofMinutes(1);
+
+    @Value("${stream.cache.loader-threads:2}")
+    private int loaderThreads = 2;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long currentSize;
+    private Path root;
+    private ExecutorService loader;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        restoreEntries();
+        loader = Executors.newFixedThreadPool(loaderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "audio-cache-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+    }
+
+    public Optional<AudioObjectInfo> lookup(String objectName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(objectName);
+        }
+        if (entry == null || entry.validatedAt + revalidateAfter.toMillis() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.info);
+    }
+
+    public void validate(AudioObjectInfo current) {
+        if (!enabled) {
+            return;
+        }
+        Entry stale = null;
+        synchronized (this) {
+            Entry entry = entries.get(current.objectName());
+            if (entry == null) {
+                return;
+            }
+            if (Objects.equals(entry.info.etag(), current.etag())) {
+                entry.validatedAt = System.currentTimeMillis();
+            } else {
+                stale = removeEntry(current.objectName());
+            }
+        }
+        deleteFile(stale);
+    }
+
+    public boolean transferTo(AudioObjectInfo object, long offset, long length, OutputStream out) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(object.objectName());
+        }
+        if (entry == null || !Objects.equals(entry.info.etag(), object.etag())) {
+            misses.incrementAndGet();
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(entry.file, StandardOpenOption.READ)) {
+            hits.incrementAndGet();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return false;
+        }
+    }
+
+    public CompletableFuture<Void> populate(AudioObjectInfo object, ObjectLoader objectLoader) {
+        if (!enabled || object.length() > maxObjectSize || object.length() > maxSize
+                || !loading.add(object.objectName())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            Path temp = root.resolve(UUID.randomUUID() + ".part");
+            try {
+                try (InputStream in = objectLoader.open()) {
+                    Files.copy(in, temp);
+                }
+                if (Files.size(temp) != object.length()) {
+                    Files.deleteIfExists(temp);
+                    return;
+                }
+                String id = UUID.randomUUID().toString();
+                writeMetadata(root.resolve(id + ".meta"), object);
+                Path file = root.resolve(id + ".audio");
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+                store(new Entry(object, file));
+            } catch (Exception e) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+                System.err.println("Ошибка при кэшировании " + object.objectName() + ": " + e.getMessage());
+            } finally {
+                loading.remove(object.objectName());
+            }
+        }, loader);
+    }
+
+    public Map<String, Long> stats() {
+        synchronized (this) {
+            return Map.of(
+                    "hits", hits.get(),
+                    "misses", misses.get(),
+                    "evictions", evictions.get(),
+                    "entries", (long) entries.size(),
+                    "sizeBytes", currentSize,
+                    "maxSizeBytes", maxSize
+            );
+        }
+    }
+
+    /**
+     * Re-indexes audio files left by a previous run from their metadata sidecars. Only files named like the
+     * cache's own are touched, so a shared directory or a subdirectory in it is left alone. Restored entries are
+     * revalidated against MinIO before their first use.
+     */
+    private void restoreEntries() throws IOException {
+        Map<String, Path> audioFiles = new HashMap<>();
+        Map<String, Path> metaFiles = new HashMap<>();
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Matcher matcher = CACHE_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                switch (matcher.group(2)) {
+                    case "audio" -> audioFiles.put(matcher.group(1), file);
+                    case "meta" -> metaFiles.put(matcher.group(1), file);
+                    default -> Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        List<Entry> restored = new ArrayList<>();
+        for (Map.Entry<String, Path> audio : audioFiles.entrySet()) {
+            Path meta = metaFiles.remove(audio.getKey());
+            AudioObjectInfo info = meta != null ? readMetadata(meta) : null;
+            if (info == null || Files.size(audio.getValue()) != info.length()) {
+                Files.deleteIfExists(audio.getValue());
+                if (meta != null) {
+                    Files.deleteIfExists(meta);
+                }
+                continue;
+            }
+            Entry entry = new Entry(info, audio.getValue());
+            entry.validatedAt = 0;
+            restored.add(entry);
+        }
+        for (Path orphan : metaFiles.values()) {
+            Files.deleteIfExists(orphan);
+        }
+
+        restored.sort(Comparator.comparing(entry -> lastModified(entry.file)));
+        restored.forEach(this::store);
+    }
+
+    private static void writeMetadata(Path meta, AudioObjectInfo object) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("objectName", object.objectName());
+        properties.setProperty("length", Long.toString(object.length()));
+        if (object.etag() != null) {
+            properties.setProperty("etag", object.etag());
+        }
+        if (object.contentType() != null) {
+            properties.setProperty("contentType", object.contentType());
+        }
+        try (OutputStream out = Files.newOutputStream(meta)) {
+            properties.store(out, null);
+        }
+    }
+
+    private static AudioObjectInfo readMetadata(Path meta) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(meta)) {
+            properties.load(in);
+            String objectName = properties.getProperty("objectName");
+            String length = properties.getProperty("length");
+            if (objectName == null || length == null) {
+                return null;
+            }
+            return new AudioObjectInfo(objectName, Long.parseLong(length),
+                    properties.getProperty("etag"), properties.getProperty("contentType"));
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void store(Entry entry) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = removeEntry(entry.info.objectName());
+            if (previous != null) {
+                evicted.add(previous);
+            }
+            entries.put(entry.info.objectName(), entry);
+            currentSize += entry.info.length();
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (currentSize > maxSize && eldest.hasNext()) {
+                Entry candidate = eldest.next().getValue();
+                if (candidate == entry) {
+                    continue;
+                }
+                eldest.remove();
+                currentSize -= candidate.info.length();
+                evictions.incrementAndGet();
+                evicted.add(candidate);
+            }
+        }
+        evicted.forEach(this::deleteFile);
+    }
+
+    private Entry removeEntry(String objectName) {
+        Entry removed = entries.remove(objectName);
+        if (removed != null) {
+            currentSize -= removed.info.length();
+        }
+        return removed;
+    }
+
+    private void deleteFile(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(entry.file);
+            Files.deleteIfExists(entry.file.resolveSibling(
+                    entry.file.getFileName().toString().replace(".audio", ".meta")));
+        } catch (IOException e) {
+            System.err.println("Не удалось удалить файл кэша " + entry.file + ": " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    public interface ObjectLoader {
+        InputStream open() throws Exception;
+    }
+
+    private static final class Entry {
+        private final AudioObjectInfo info;
+        private final Path file;
+        private volatile long validatedAt = System.currentTimeMillis();
+
+        private Entry(AudioObjectInfo info, Path file) {
+            this.info = info;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.synergy.service;
+
+import io.minio.StatObjectResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.synergy.dto.AudioObjectInfo;
+import ru.synergy.model.Track;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class AudioStreamService {
+    private static final String BUCKET = "music-bucket";
+
+    private final MinioService minioService;
+    private final AudioDiskCache diskCache;
+
+    @Value("${stream.buffer-size:65536}")
+    private int bufferSize = 65536;
+
+    public String objectNameOf(Track track) {
+        if (track.getObjectName() != null) {
+            return track.getObjectName();
+        }
+        String fileUrl = track.getFileUrl();
+        if (fileUrl == null) {
+            return null;
+        }
+        return fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+    }
+
+    public AudioObjectInfo describe(String objectName) throws Exception {
+        Optional<AudioObjectInfo> cached = diskCache.lookup(objectName);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        StatObjectResponse stat = minioService.statObject(BUCKET, objectName);
+        String etag = stat.etag() != null ? stat.etag().replace("\"", "") : null;
+        AudioObjectInfo info = new AudioObjectInfo(objectName, stat.size(), etag, stat.contentType());
+        diskCache.validate(info);
+        return info;
+    }
+
+    public void copyRange(AudioObjectInfo object, long offset, long length, OutputStream out) throws Exception {
+        if (length <= 0) {
+            return;
+        }
+        if (diskCache.transferTo(object, offset, length, out)) {
+            return;
+        }
+        diskCache.populate(object, () -> minioService.getObject(BUCKET, object.objectName(), 0, object.length()));
+
+        try (InputStream in = minioService.getObject(BUCKET, object.objectName(), offset, length)) {
+            byte[] buffer = new byte[(int) Math.min(bufferSize, length)];
+            long remaining = length;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import ru.synergy.dto.CatalogImportResultDto;
+import ru.synergy.model.Track;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+    public static final String MANIFEST_NAME = "manifest.csv";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final TrackService trackService;
+
+    @Value("${import.parallelism:8}")
+    private int parallelism = 8;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize = 500;
+
+    public CatalogImportResultDto importArchive(InputStream archive) throws IOException {
+        Path tempFile = Files.createTempFile("catalog-", ".zip");
+        try {
+            Files.copy(archive, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            try (ZipFile zip = new ZipFile(tempFile.toFile(), StandardCharsets.UTF_8)) {
+                return importEntries(zip, readManifest(zip));
+            } catch (ZipException e) {
+                throw new IllegalArgumentException("Некорректный архив");
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private List<ManifestRow> readManifest(ZipFile zip) throws IOException {
+        ZipEntry manifest = zip.getEntry(MANIFEST_NAME);
+        if (manifest == null) {
+            throw new IllegalArgumentException("В архиве нет файла " + MANIFEST_NAME);
+        }
+        List<ManifestRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(zip.getInputStream(manifest), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("file;"))) {
+                    continue;
+                }
+                String[] columns = line.split(";", -1);
+                if (columns.length < 3 || columns[0].isBlank() || columns[1].isBlank() || columns[2].isBlank()) {
+                    throw new IllegalArgumentException("Некорректная строка " + lineNumber + " в " + MANIFEST_NAME);
+                }
+                String genre = columns.length > 3 && !columns[3].isBlank() ? columns[3].trim() : null;
+                rows.add(new ManifestRow(columns[0].trim(), columns[1].trim(), columns[2].trim(), genre));
+            }
+        }
+        return rows;
+    }
+
+    private CatalogImportResultDto importEntries(ZipFile zip, List<ManifestRow> rows) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        int imported = 0;
+        int failed = 0;
+        List<String> errors = new ArrayList<>();
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                List<ManifestRow> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                List<Future<Track>> uploads = new ArrayList<>(chunk.size());
+                for (ManifestRow row : chunk) {
+                    uploads.add(executor.submit(() -> upload(zip, row)));
+                }
+
+                List<Track> uploaded = new ArrayList<>(chunk.size());
+                for (int i = 0; i < uploads.size(); i++) {
+                    try {
+                        uploaded.add(uploads.get(i).get());
+                    } catch (ExecutionException e) {
+                        failed++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add(chunk.get(i).file() + ": " + e.getCause().getMessage());
+                        }
+                    }
+                }
+                if (uploaded.isEmpty()) {
+                    continue;
+                }
+                try {
+                    imported += trackService.saveTracks(uploaded).size();
+                } catch (RuntimeException e) {
+                    uploaded.forEach(track -> trackService.discardAudio(track.getObjectName()));
+                    failed += uploaded.size();
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Строки " + (from + 1) + "–" + (from + chunk.size())
+                                + ": не удалось сохранить треки: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Импорт прерван");
+        } finally {
+            executor.shutdownNow();
+        }
+        return new CatalogImportResultDto(imported, failed, errors);
+    }
+
+    private Track upload(ZipFile zip, ManifestRow row) throws Exception {
+        ZipEntry entry = zip.getEntry(row.file());
+        if (entry == null || entry.isDirectory()) {
+            throw new IllegalArgumentException("Файл не найден в архиве");
+        }
+        String fileName = row.file().substring(row.file().lastIndexOf('/') + 1);
+        String contentType = MediaTypeFactory.getMediaType(fileName)
+                .map(MediaType::toString)
+                .orElse("application/octet-stream");
+
+        Track track = new Track();
+        track.setTitle(row.title());
+        track.setArtist(row.artist());
+        track.setGenres(row.genre());
+        try (InputStream in = zip.getInputStream(entry)) {
+            trackService.storeAudio(track, in, fileName, contentType);
+        }
+        return track;
+    }
+
+    private record ManifestRow(String file, String title, String artist, String genre) {
+    }
+}
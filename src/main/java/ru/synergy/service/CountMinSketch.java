@@ -0,0 +1,89 @@
+package ru.synergy.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch over 64-bit key hashes: estimates never undercount and overcount by at most
+ * {@code e / width} of the total with probability {@code 1 - e^-depth}. Sketches of the same shape can be
+ * summed, which is what lets chart buckets be merged into a window.
+ */
+final class CountMinSketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0x27D4EB2F165667C5L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB34FD4C54C11L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final int[] table;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Некорректные размеры скетча: " + depth + "x" + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.table = new int[depth * width];
+    }
+
+    void add(long hash, int count) {
+        int width = mask + 1;
+        for (int row = 0; row < depth; row++) {
+            table[row * width + column(hash, row)] += count;
+        }
+    }
+
+    long estimate(long hash) {
+        int width = mask + 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row * width + column(hash, row)]);
+        }
+        return min;
+    }
+
+    void addAll(CountMinSketch other) {
+        if (other.table.length != table.length || other.depth != depth) {
+            throw new IllegalArgumentException("Скетчи разного размера нельзя объединить");
+        }
+        for (int i = 0; i < table.length; i++) {
+            table[i] += other.table[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        for (int cell : table) {
+            out.writeInt(cell);
+        }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = in.readInt();
+        }
+    }
+
+    static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private int column(long hash, int row) {
+        long mixed = (hash ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xC4CEB34FD4C54C11L;
+        mixed ^= mixed >>> 33;
+        return (int) mixed & mask;
+    }
+}
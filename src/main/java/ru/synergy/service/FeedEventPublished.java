@@ -0,0 +1,9 @@
+package ru.synergy.service;
+
+/**
+ * Published by {@link FeedService} when a new feed event is stored and still has to reach the followers
+ */
+public record FeedEventPublished(
+        Long eventId
+) {
+}
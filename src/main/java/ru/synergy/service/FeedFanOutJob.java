@@ -0,0 +1,73 @@
+package ru.synergy.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copies committed feed events into followers' feeds on a background thread. Each pass gives every pending
+ * event one chunk, so a single author with many followers does not hold up everyone else; the periodic
+ * sweep picks up events whose fan-out was interrupted by a restart.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedFanOutJob {
+    static final int PENDING_BATCH = 100;
+
+    private final FeedService feedService;
+
+    @Value("${feed.fan-out-chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "feed-fan-out");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @TransactionalEventListener
+    public void onPublished(FeedEventPublished event) {
+        schedule();
+    }
+
+    @Scheduled(fixedDelayString = "${feed.fan-out-sweep-interval:PT30S}")
+    public void sweep() {
+        schedule();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void drain() {
+        queued.set(false);
+        try {
+            List<Long> pending;
+            do {
+                pending = feedService.findPendingFanOut(PENDING_BATCH);
+                for (Long eventId : pending) {
+                    feedService.fanOutChunk(eventId, chunkSize);
+                }
+            } while (!pending.isEmpty());
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось разослать события ленты подписчикам: " + e.getMessage());
+        }
+    }
+
+    private void schedule() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.model.FeedEvent;
+import ru.synergy.model.FeedEventType;
+import ru.synergy.model.Playlist;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.repository.FeedEventRepository;
+import ru.synergy.repository.FeedItemRepository;
+import ru.synergy.repository.UserFollowRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Activity feed with fan-out on write: each event is copied into the feed of every follower of its author,
+ * so reading a page is a single range scan over the reader's own rows. The copy is made after commit by
+ * {@link FeedFanOutJob} in follower-id chunks, so publishing costs the same regardless of follower count.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int BACKFILL_SIZE = 50;
+
+    private final FeedEventRepository feedEventRepository;
+    private final FeedItemRepository feedItemRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${feed.retention:P90D}")
+    private Duration retention = Duration.ofDays(90);
+
+    @Transactional
+    public void publishPlaylistCreated(User actor, Playlist playlist) {
+        FeedEvent event = newEvent(FeedEventType.PLAYLIST_CREATED, actor);
+        event.setPlaylistId(playlist.getId());
+        event.setPlaylistName(playlist.getName());
+        publish(event);
+    }
+
+    @Transactional
+    public void publishTrackAdded(User actor, Playlist playlist, Track track) {
+        FeedEvent event = newEvent(FeedEventType.TRACK_ADDED, actor);
+        event.setPlaylistId(playlist.getId());
+        event.setPlaylistName(playlist.getName());
+        event.setTrackId(track.getId());
+        event.setTrackTitle(track.getTitle());
+        publish(event);
+    }
+
+    @Transactional
+    public void publishTracksAdded(User actor, Playlist playlist, int trackCount) {
+        FeedEvent event = newEvent(FeedEventType.TRACKS_ADDED, actor);
+        event.setPlaylistId(playlist.getId());
+        event.setPlaylistName(playlist.getName());
+        event.setTrackCount(trackCount);
+        publish(event);
+    }
+
+    @Transactional
+    public void publishReviewPosted(User actor, Track track, Integer rating) {
+        FeedEvent event = newEvent(FeedEventType.REVIEW_POSTED, actor);
+        event.setTrackId(track.getId());
+        event.setTrackTitle(track.getTitle());
+        event.setRating(rating);
+        publish(event);
+    }
+
+    public CursorPage<FeedEvent> getFeed(User user, Long beforeId, int size) {
+        if (user == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<FeedEvent> events = feedEventRepository.findFeedPage(
+                user.getId(), beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+        if (events.size() <= pageSize) {
+            return new CursorPage<>(events, null);
+        }
+        List<FeedEvent> page = events.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
+    public List<Long> findPendingFanOut(int limit) {
+        return feedEventRepository.findPendingFanOutIds(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Copies the event to the next {@code chunkSize} followers of its author
+     *
+     * @return true while followers are left
+     */
+    @Transactional
+    public boolean fanOutChunk(Long eventId, int chunkSize) {
+        Optional<FeedEvent> found = feedEventRepository.findById(eventId);
+        if (found.isEmpty() || found.get().getFanOutCursor() == null) {
+            return false;
+        }
+        FeedEvent event = found.get();
+        List<Long> followerIds = userFollowRepository.findFollowerIdsAfter(
+                event.getActorId(), event.getFanOutCursor(), PageRequest.of(0, chunkSize));
+        if (followerIds.isEmpty()) {
+            event.setFanOutCursor(null);
+            return false;
+        }
+        Long lastFollowerId = followerIds.get(followerIds.size() - 1);
+        feedItemRepository.fanOut(eventId, event.getActorId(), event.getFanOutCursor(), lastFollowerId);
+        boolean more = followerIds.size() == chunkSize;
+        event.setFanOutCursor(more ? lastFollowerId : null);
+        return more;
+    }
+
+    @Transactional
+    public void onFollow(Long followerId, Long followedId) {
+        feedItemRepository.backfill(followerId, followedId, BACKFILL_SIZE);
+    }
+
+    @Transactional
+    public void onUnfollow(Long followerId, Long followedId) {
+        feedItemRepository.deleteByUserAndActor(followerId, followedId);
+    }
+
+    @Transactional
+    public void deleteAllOfUser(Long userId) {
+        feedItemRepository.deleteByUser(userId);
+        feedItemRepository.deleteByActor(userId);
+        feedEventRepository.deleteByActor(userId);
+    }
+
+    @Transactional
+    public void deletePlaylistEvents(Long playlistId) {
+        feedItemRepository.deleteByPlaylist(playlistId);
+        feedEventRepository.deleteByPlaylist(playlistId);
+    }
+
+    @Scheduled(cron = "${feed.purge-cron:0 15 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        Long maxId = feedEventRepository.findMaxIdCreatedBefore(LocalDateTime.now().minus(retention));
+        if (maxId != null) {
+            feedItemRepository.deleteUpTo(maxId);
+            feedEventRepository.deleteUpTo(maxId);
+        }
+    }
+
+    private FeedEvent newEvent(FeedEventType type, User actor) {
+        FeedEvent event = new FeedEvent();
+        event.setType(type);
+        event.setActorId(actor.getId());
+        event.setActorName(actor.getUsername());
+        return event;
+    }
+
+    private void publish(FeedEvent event) {
+        event.setFanOutCursor(0L);
+        feedEventRepository.save(event);
+        eventPublisher.publishEvent(new FeedEventPublished(event.getId()));
+    }
+}
@@ -0,0 +1,167 @@
+package ru.synergy.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable snapshot of the follow graph in compressed sparse row form. Users are addressed by their
+ * position in the sorted {@code userIds} array, and the accounts followed by user {@code i} are
+ * {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}, sorted. That costs 4 bytes per edge
+ * and 16 bytes per user, with no per-edge objects.
+ */
+final class FollowGraph {
+    static final FollowGraph EMPTY = new FollowGraph(new long[0], new int[1], new int[0]);
+
+    private final long[] userIds;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] inDegree;
+
+    private FollowGraph(long[] userIds, int[] offsets, int[] targets) {
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.inDegree = new int[userIds.length];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+    }
+
+    int userCount() {
+        return userIds.length;
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Friends-of-friends ranking: every account followed by someone the user follows scores one point per
+     * such path; ties go to the account with more followers. {@code followed} and {@code unfollowed}
+     * correct the user's own follow list for changes made since the snapshot was built.
+     *
+     * @param maxVisits upper bound on second-hop edges scanned, split evenly between the user's follows
+     */
+    List<Long> recommend(long userId, int limit, Collection<Long> followed, Collection<Long> unfollowed, int maxVisits) {
+        int self = indexOf(userId);
+        int[] direct = directFollows(self, followed, unfollowed);
+        if (direct.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        int perFollow = Math.max(1, maxVisits / direct.length);
+        int secondHop = 0;
+        for (int follow : direct) {
+            secondHop += Math.min(offsets[follow + 1] - offsets[follow], perFollow);
+        }
+        IntIntCounter scores = new IntIntCounter(secondHop);
+        for (int follow : direct) {
+            int end = Math.min(offsets[follow + 1], offsets[follow] + perFollow);
+            for (int e = offsets[follow]; e < end; e++) {
+                int candidate = targets[e];
+                if (candidate != self && Arrays.binarySearch(direct, candidate) < 0) {
+                    scores.increment(candidate);
+                }
+            }
+        }
+
+        PriorityQueue<int[]> top = new PriorityQueue<>(limit + 1, this::compareCandidates);
+        scores.forEach((candidate, score) -> {
+            top.offer(new int[]{candidate, score});
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<Long> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(userIds[top.poll()[0]]);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private int compareCandidates(int[] a, int[] b) {
+        if (a[1] != b[1]) {
+            return Integer.compare(a[1], b[1]);
+        }
+        if (inDegree[a[0]] != inDegree[b[0]]) {
+            return Integer.compare(inDegree[a[0]], inDegree[b[0]]);
+        }
+        return Integer.compare(b[0], a[0]);
+    }
+
+    private int[] directFollows(int self, Collection<Long> followed, Collection<Long> unfollowed) {
+        int[] base = self >= 0 ? Arrays.copyOfRange(targets, offsets[self], offsets[self + 1]) : new int[0];
+        if (followed.isEmpty() && unfollowed.isEmpty()) {
+            return base;
+        }
+        int[] merged = Arrays.copyOf(base, base.length + followed.size());
+        int size = 0;
+        for (int target : base) {
+            if (!unfollowed.contains(userIds[target])) {
+                merged[size++] = target;
+            }
+        }
+        for (Long followedId : followed) {
+            int target = indexOf(followedId);
+            if (target >= 0 && Arrays.binarySearch(base, target) < 0) {
+                merged[size++] = target;
+            }
+        }
+        int[] direct = Arrays.copyOf(merged, size);
+        Arrays.sort(direct);
+        return direct;
+    }
+
+    private int indexOf(long userId) {
+        int index = Arrays.binarySearch(userIds, userId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Accepts edges grouped by follower in ascending id order, as read from
+     * {@code ORDER BY follower_id, followed_id}; edges touching unknown users are dropped
+     */
+    static final class Builder {
+        private final long[] userIds;
+        private final int[] offsets;
+        private int[] targets;
+        private int size;
+        private int lastFollower = -1;
+
+        Builder(long[] sortedUserIds, int expectedEdges) {
+            this.userIds = sortedUserIds;
+            this.offsets = new int[sortedUserIds.length + 1];
+            this.targets = new int[Math.max(16, expectedEdges)];
+        }
+
+        void add(long followerId, long followedId) {
+            int from = Arrays.binarySearch(userIds, followerId);
+            int to = Arrays.binarySearch(userIds, followedId);
+            if (from < 0 || to < 0 || from == to) {
+                return;
+            }
+            if (from < lastFollower) {
+                throw new IllegalStateException("Подписки должны идти по возрастанию follower_id");
+            }
+            while (lastFollower < from) {
+                offsets[++lastFollower] = size;
+            }
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size + (size >> 1));
+            }
+            targets[size++] = to;
+        }
+
+        FollowGraph build() {
+            while (lastFollower < userIds.length) {
+                offsets[++lastFollower] = size;
+            }
+            return new FollowGraph(userIds, offsets, size == targets.length ? targets : Arrays.copyOf(targets, size));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class FollowGraphRebuildJob {
+    private final FollowRecommendationService followRecommendationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${follows.graph-rebuild-cron:0 */15 * * * *}")
+    public void rebuild() {
+        followRecommendationService.rebuild();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Who-to-follow suggestions served from an in-memory {@link FollowGraph}. The graph is rebuilt from
+ * user_follows by {@link FollowGraphRebuildJob}; follows made in between are kept in a small per-user
+ * overlay so a user's own suggestions react immediately.
+ */
+@Service
+@RequiredArgsConstructor
+public class FollowRecommendationService {
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserFollowStatsService userFollowStatsService;
+
+    @Value("${follows.recommendations.max-visits:200000}")
+    private int maxVisits = 200_000;
+
+    private volatile FollowGraph graph = FollowGraph.EMPTY;
+    private Overlay overlay = new Overlay();
+    private Overlay sinceRebuild;
+
+    public List<UserSummaryDto> recommend(Long userId, int limit) {
+        if (userId == null) {
+            return userFollowStatsService.getMostFollowed(null, limit);
+        }
+        Set<Long> followed;
+        Set<Long> unfollowed;
+        synchronized (this) {
+            followed = new HashSet<>(overlay.followed.getOrDefault(userId, Set.of()));
+            unfollowed = new HashSet<>(overlay.unfollowed.getOrDefault(userId, Set.of()));
+        }
+
+        List<Long> candidateIds = graph.recommend(userId, limit, followed, unfollowed, maxVisits);
+        LinkedHashSet<UserSummaryDto> result = new LinkedHashSet<>(orderedSummaries(candidateIds));
+        if (result.size() < limit) {
+            Set<Long> seen = result.stream().map(UserSummaryDto::id).collect(Collectors.toCollection(HashSet::new));
+            seen.addAll(followed);
+            for (UserSummaryDto popular : userFollowStatsService.getMostFollowed(userId, limit * 2)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (seen.add(popular.id())) {
+                    result.add(popular);
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    public synchronized void onFollow(Long followerId, Long followedId) {
+        overlay.follow(followerId, followedId);
+        if (sinceRebuild != null) {
+            sinceRebuild.follow(followerId, followedId);
+        }
+    }
+
+    public synchronized void onUnfollow(Long followerId, Long followedId) {
+        overlay.unfollow(followerId, followedId);
+        if (sinceRebuild != null) {
+            sinceRebuild.unfollow(followerId, followedId);
+        }
+    }
+
+    /**
+     * Streams users and follows into a fresh snapshot and swaps it in; follows recorded while
+     * the snapshot was loading stay in the overlay because the read may have missed them
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            sinceRebuild = new Overlay();
+        }
+        FollowGraph rebuilt;
+        try {
+            rebuilt = load();
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось перестроить граф подписок: " + e.getMessage());
+            synchronized (this) {
+                sinceRebuild = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            graph = rebuilt;
+            overlay = sinceRebuild;
+            sinceRebuild = null;
+        }
+    }
+
+    public int userCount() {
+        return graph.userCount();
+    }
+
+    public int edgeCount() {
+        return graph.edgeCount();
+    }
+
+    private FollowGraph load() {
+        Integer userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logins", Integer.class);
+        long[][] ids = {new long[Math.max(16, userCount != null ? userCount : 0)]};
+        int[] loaded = {0};
+        stream("SELECT id FROM logins ORDER BY id", rs -> {
+            if (loaded[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], loaded[0] + (loaded[0] >> 1));
+            }
+            ids[0][loaded[0]++] = rs.getLong(1);
+        });
+
+        Integer edgeCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_follows", Integer.class);
+        FollowGraph.Builder builder = new FollowGraph.Builder(
+                Arrays.copyOf(ids[0], loaded[0]), edgeCount != null ? edgeCount : 0);
+        stream("SELECT follower_id, followed_id FROM user_follows ORDER BY follower_id, followed_id",
+                rs -> builder.add(rs.getLong(1), rs.getLong(2)));
+        return builder.build();
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, handler);
+    }
+
+    private List<UserSummaryDto> orderedSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserSummaryDto> byId = userRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserSummaryDto::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static final class Overlay {
+        private final Map<Long, Set<Long>> followed = new HashMap<>();
+        private final Map<Long, Set<Long>> unfollowed = new HashMap<>();
+
+        void follow(Long followerId, Long followedId) {
+            followed.computeIfAbsent(followerId, id -> new HashSet<>()).add(followedId);
+            remove(unfollowed, followerId, followedId);
+        }
+
+        void unfollow(Long followerId, Long followedId) {
+            unfollowed.computeIfAbsent(followerId, id -> new HashSet<>()).add(followedId);
+            remove(followed, followerId, followedId);
+        }
+
+        private static void remove(Map<Long, Set<Long>> edges, Long followerId, Long followedId) {
+            Set<Long> targets = edges.get(followerId);
+            if (targets != null && targets.remove(followedId) && targets.isEmpty()) {
+                edges.remove(followerId);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.synergy.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Approximate top-k: a Count-Min sketch counts every key and a min-heap keeps the {@code capacity} keys with the
+ * highest estimates seen so far. Estimates only grow, so heap entries are refreshed lazily when the minimum is
+ * about to be compared against a newcomer rather than on every increment.
+ */
+final class HeavyHitters {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c.estimate));
+    private long total;
+
+    HeavyHitters(int depth, int width, int capacity) {
+        this.sketch = new CountMinSketch(depth, width);
+        this.capacity = capacity;
+    }
+
+    void add(String key, int count) {
+        long hash = CountMinSketch.hash(key);
+        sketch.add(hash, count);
+        total += count;
+        if (candidates.containsKey(key)) {
+            return;
+        }
+        long estimate = sketch.estimate(hash);
+        if (candidates.size() < capacity) {
+            admit(key, hash, estimate);
+            return;
+        }
+        Candidate weakest = refreshedMinimum();
+        if (estimate > weakest.estimate) {
+            heap.poll();
+            candidates.remove(weakest.key);
+            admit(key, hash, estimate);
+        }
+    }
+
+    CountMinSketch sketch() {
+        return sketch;
+    }
+
+    Collection<Candidate> candidates() {
+        return candidates.values();
+    }
+
+    long total() {
+        return total;
+    }
+
+    void clear() {
+        sketch.clear();
+        candidates.clear();
+        heap.clear();
+        total = 0;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(total);
+        sketch.writeTo(out);
+        out.writeInt(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            out.writeUTF(candidate.key);
+        }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        clear();
+        total = in.readLong();
+        sketch.readFrom(in);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            long hash = CountMinSketch.hash(key);
+            if (candidates.size() < capacity) {
+                admit(key, hash, sketch.estimate(hash));
+            }
+        }
+    }
+
+    private Candidate refreshedMinimum() {
+        while (true) {
+            Candidate weakest = heap.peek();
+            long current = sketch.estimate(weakest.hash);
+            if (current == weakest.estimate) {
+                return weakest;
+            }
+            heap.poll();
+            weakest.estimate = current;
+            heap.add(weakest);
+        }
+    }
+
+    private void admit(String key, long hash, long estimate) {
+        Candidate candidate = new Candidate(key, hash, estimate);
+        candidates.put(key, candidate);
+        heap.add(candidate);
+    }
+
+    static final class Candidate {
+        final String key;
+        final long hash;
+        long estimate;
+
+        Candidate(String key, long hash, long estimate) {
+            this.key = key;
+            this.hash = hash;
+            this.estimate = estimate;
+        }
+    }
+}
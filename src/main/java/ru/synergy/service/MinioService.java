@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 
@@ -23,7 +24,7 @@ public class MinioService {
             if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket("music-bucket").build())) {
                 minioClient.makeBucket(MakeBucketArgs.builder().bucket("music-bucket").build());
             }
-            setBucketPublic("music-bucket");
+            setBucketPrivate("music-bucket");
         } catch (Exception e) {
             throw new RuntimeException("Ошибка при инициализации bucket'а ", e);
         }
@@ -43,18 +44,70 @@ public class MinioService {
         );
     }
 
+    public void uploadStream(String bucketName, String objectName, InputStream stream, String contentType, long partSize)
+            throws ServerException, InsufficientDataException, ErrorResponseException,
+            IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(stream, -1, partSize)
+                        .contentType(contentType)
+                        .build()
+        );
+    }
+
+    public StatObjectResponse statObject(String bucketName, String objectName)
+            throws ServerException, InsufficientDataException, ErrorResponseException,
+            IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        return minioClient.statObject(
+                StatObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .build()
+        );
+    }
+
+    public InputStream getObject(String bucketName, String objectName, long offset, long length)
+            throws ServerException, InsufficientDataException, ErrorResponseException,
+            IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        return minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .offset(offset)
+                        .length(length)
+                        .build()
+        );
+    }
+
+    public void removeObject(String bucketName, String objectName)
+            throws ServerException, InsufficientDataException, ErrorResponseException,
+            IOException, NoSuchAlgorithmException, InvalidKeyException, InvalidResponseException,
+            XmlParserException, InternalException {
+        minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .build()
+        );
+    }
+
     public String getFileUrl(String bucketName, String objectName) {
         return String.format("http://localhost:9000/%s/%s", bucketName, objectName);
     }
 
-    public void setBucketPublic(String bucketName) {
+    /**
+     * Drops any bucket policy so objects are reachable only through the application's stream endpoint
+     */
+    public void setBucketPrivate(String bucketName) {
         try {
-            String policyJson = "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Effect\":\"Allow\",\"Principal\":{\"AWS\":\"*\"},\"Action\":[\"s3:GetObject\"],\"Resource\":[\"arn:aws:s3:::" + bucketName + "/*\"]}]}";
-
-            minioClient.setBucketPolicy(
-                    SetBucketPolicyArgs.builder()
+            minioClient.deleteBucketPolicy(
+                    DeleteBucketPolicyArgs.builder()
                             .bucket(bucketName)
-                            .config(policyJson)
                             .build()
             );
         } catch (MinioException | InvalidKeyException | NoSuchAlgorithmException e) {
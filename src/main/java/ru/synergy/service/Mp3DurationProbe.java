@@ -0,0 +1,143 @@
+package ru.synergy.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Measures the duration of an MPEG audio stream (MP1/MP2/MP3) while it is being read by someone else: frame
+ * headers are parsed as the bytes pass through, and the sample counts of all frames are summed, which is exact
+ * for both constant and variable bitrate files. A leading ID3v2 tag is skipped; counting stops at the first
+ * byte run that is not a frame, which is where a trailing ID3v1/APE tag starts.
+ */
+final class Mp3DurationProbe extends FilterInputStream {
+    private static final int[][] BITRATES_V1 = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}
+    };
+    private static final int[][] BITRATES_V2 = {
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private static final int[] SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+    private final byte[] header = new byte[10];
+    private int headerFill;
+    private long skip;
+    private boolean atStart = true;
+    private boolean stopped;
+    private double seconds;
+    private long frames;
+
+    Mp3DurationProbe(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * @return whole seconds of audio seen so far, or null when no MPEG frames were found
+     */
+    Integer durationSeconds() {
+        return frames > 0 ? (int) Math.round(seconds) : null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            consume((byte) b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        for (int i = 0; i < read && !stopped; i++) {
+            if (skip > 0) {
+                long jump = Math.min(skip, read - i);
+                skip -= jump;
+                i += (int) jump - 1;
+                continue;
+            }
+            consume(buffer[offset + i]);
+        }
+        return read;
+    }
+
+    private void consume(byte b) {
+        if (stopped) {
+            return;
+        }
+        if (skip > 0) {
+            skip--;
+            return;
+        }
+        header[headerFill++] = b;
+        if (atStart) {
+            consumeStart();
+        } else if (headerFill == 4) {
+            consumeFrameHeader();
+        }
+    }
+
+    private void consumeStart() {
+        if (headerFill < 3) {
+            return;
+        }
+        boolean id3 = header[0] == 'I' && header[1] == 'D' && header[2] == '3';
+        if (!id3) {
+            atStart = false;
+            if (headerFill == 4) {
+                consumeFrameHeader();
+            }
+            return;
+        }
+        if (headerFill < 10) {
+            return;
+        }
+        long tagSize = (header[6] & 0x7F) << 21 | (header[7] & 0x7F) << 14 | (header[8] & 0x7F) << 7 | (header[9] & 0x7F);
+        boolean footer = (header[5] & 0x10) != 0;
+        skip = tagSize + (footer ? 10 : 0);
+        headerFill = 0;
+        atStart = false;
+    }
+
+    private void consumeFrameHeader() {
+        headerFill = 0;
+        int h0 = header[0] & 0xFF;
+        int h1 = header[1] & 0xFF;
+        int h2 = header[2] & 0xFF;
+        if (h0 != 0xFF || (h1 & 0xE0) != 0xE0) {
+            stopped = true;
+            return;
+        }
+        int version = (h1 >> 3) & 0x03;
+        int layer = (h1 >> 1) & 0x03;
+        int bitrateIndex = h2 >> 4;
+        int sampleRateIndex = (h2 >> 2) & 0x03;
+        if (version == 1 || layer == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            stopped = true;
+            return;
+        }
+        boolean mpeg1 = version == 3;
+        int layerIndex = 3 - layer;
+        int bitrate = (mpeg1 ? BITRATES_V1 : BITRATES_V2)[layerIndex][bitrateIndex] * 1000;
+        int sampleRate = SAMPLE_RATES_V1[sampleRateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+        int padding = (h2 >> 1) & 0x01;
+
+        int samples;
+        int frameLength;
+        if (layerIndex == 0) {
+            samples = 384;
+            frameLength = (12 * bitrate / sampleRate + padding) * 4;
+        } else {
+            samples = layerIndex == 2 && !mpeg1 ? 576 : 1152;
+            frameLength = samples / 8 * bitrate / sampleRate + padding;
+        }
+        frames++;
+        seconds += (double) samples / sampleRate;
+        skip = frameLength - 4;
+    }
+}
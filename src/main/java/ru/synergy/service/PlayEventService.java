@@ -0,0 +1,218 @@
+package ru.synergy.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ru.synergy.dto.PlayEventRequest;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.User;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Accepts play events without touching the database on the request thread: events go into a lock-free ring
+ * buffer and a single background writer drains it into multi-row INSERTs. When the database is unavailable
+ * batches are spooled to disk and replayed later; when the ring is full the event is spooled directly, and
+ * when the spool is full as well the caller is told to back off.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlayEventService {
+    static final int MAX_POSITION_SECONDS = 24 * 60 * 60;
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO play_events (user_id, track_id, type, position_seconds, occurred_at) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayEventSpool spool;
+    private final TopChartService topChartService;
+
+    @Value("${plays.writer.enabled:true}")
+    private boolean writerEnabled = true;
+
+    @Value("${plays.buffer-capacity:65536}")
+    private int bufferCapacity = 65536;
+
+    @Value("${plays.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${plays.flush-interval:PT0.2S}")
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    @Value("${plays.spool.replay-interval:PT30S}")
+    private Duration replayInterval = Duration.ofSeconds(30);
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<RecordedPlay> batch = new ArrayList<>();
+    private MpscRingBuffer<RecordedPlay> buffer;
+    private volatile boolean running;
+    private Thread writer;
+    private long nextReplayAt;
+
+    @PostConstruct
+    public void init() {
+        buffer = new MpscRingBuffer<>(bufferCapacity);
+        if (!writerEnabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "play-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (writer == null || !writer.isAlive()) {
+            int drained;
+            do {
+                drained = flushPending();
+            } while (drained > 0);
+        }
+    }
+
+    public void record(User user, PlayEventRequest request) {
+        if (user == null) {
+            throw new IllegalArgumentException("Пользователь не найден");
+        }
+        if (request == null || request.trackId() == null || request.trackId() <= 0) {
+            throw new IllegalArgumentException("Не указан трек");
+        }
+        if (request.type() == null) {
+            throw new IllegalArgumentException("Не указан тип события");
+        }
+        int position = request.positionSeconds() != null ? request.positionSeconds() : 0;
+        if (position < 0 || position > MAX_POSITION_SECONDS) {
+            throw new IllegalArgumentException("Некорректная позиция воспроизведения");
+        }
+
+        RecordedPlay play = new RecordedPlay(user.getId(), request.trackId(), request.type(), position,
+                System.currentTimeMillis());
+        if (buffer.offer(play)) {
+            accepted.incrementAndGet();
+            return;
+        }
+        if (spool.append(List.of(play))) {
+            spooled.incrementAndGet();
+            return;
+        }
+        throw new IllegalStateException("Сервис событий прослушивания перегружен, повторите позже");
+    }
+
+    public long acceptedCount() {
+        return accepted.get();
+    }
+
+    public long spooledCount() {
+        return spooled.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public int bufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Drains one batch from the ring and writes it; runs on the writer thread only
+     *
+     * @return number of events taken from the ring
+     */
+    int flushPending() {
+        batch.clear();
+        int drained = buffer.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось записать события прослушиваний, сохраняем в спул: " + e.getMessage());
+            if (spool.append(batch)) {
+                spooled.addAndGet(drained);
+            } else {
+                dropped.addAndGet(drained);
+                System.err.println("Спул событий прослушиваний переполнен, потеряно событий: " + drained);
+            }
+            nextReplayAt = System.currentTimeMillis() + replayInterval.toMillis();
+        }
+        try {
+            topChartService.onPlays(batch);
+        } catch (RuntimeException e) {
+            System.err.println("Не удалось учесть прослушивания в чартах: " + e.getMessage());
+        }
+        return drained;
+    }
+
+    /**
+     * Replays the spool once the database is reachable again; runs on the writer thread only
+     */
+    void replaySpool() {
+        if (spool.isEmpty() || System.currentTimeMillis() < nextReplayAt) {
+            return;
+        }
+        try {
+            spool.replay(batchSize, this::insert);
+        } catch (IOException | DataAccessException e) {
+            System.err.println("Не удалось перенести события прослушиваний из спула: " + e.getMessage());
+            nextReplayAt = System.currentTimeMillis() + replayInterval.toMillis();
+        }
+    }
+
+    void insert(List<RecordedPlay> plays) {
+        for (int from = 0; from < plays.size(); from += ROWS_PER_STATEMENT) {
+            List<RecordedPlay> chunk = plays.subList(from, Math.min(plays.size(), from + ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * 18).append(INSERT_PREFIX);
+            Object[] args = new Object[chunk.size() * 5];
+            int i = 0;
+            for (RecordedPlay play : chunk) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+                args[i++] = play.userId();
+                args[i++] = play.trackId();
+                args[i++] = play.type().name();
+                args[i++] = play.positionSeconds();
+                args[i++] = new Timestamp(play.occurredAt());
+            }
+            jdbcTemplate.update(sql.toString(), args);
+        }
+    }
+
+    private void runWriter() {
+        long idleNanos = Math.max(1, flushInterval.toNanos());
+        while (running) {
+            try {
+                if (flushPending() == 0) {
+                    replaySpool();
+                    LockSupport.parkNanos(this, idleNanos);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка фоновой записи событий прослушиваний: " + e.getMessage());
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+    }
+}
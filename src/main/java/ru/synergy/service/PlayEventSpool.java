@@ -0,0 +1,203 @@
+package ru.synergy.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.PlayEventType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only file for play events that could not reach the database. Every append is forced to disk
+ * before returning, so an accepted event survives a crash; {@link #replay} later moves the file aside as a
+ * segment and feeds it back in batches.
+ */
+@Component
+public class PlayEventSpool {
+    private static final String ACTIVE_FILE = "plays.spool";
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    @Value("${plays.spool.dir:${java.io.tmpdir}/msp-play-spool}")
+    private String directory;
+
+    @Value("${plays.spool.max-size:268435456}")
+    private long maxSize = 256L * 1024 * 1024;
+
+    private Path root;
+    private long spooledBytes;
+    private long segmentSequence;
+
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        spooledBytes = 0;
+        try (Stream<Path> files = Files.list(root)) {
+            for (Path file : files.toList()) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.delete(file);
+                } else {
+                    spooledBytes += Files.size(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return false when the spool is full or cannot be written; nothing from {@code plays} is kept in that case
+     */
+    public synchronized boolean append(List<RecordedPlay> plays) {
+        if (plays.isEmpty()) {
+            return true;
+        }
+        StringBuilder lines = new StringBuilder(plays.size() * 48);
+        for (RecordedPlay play : plays) {
+            lines.append(play.userId()).append(',')
+                    .append(play.trackId()).append(',')
+                    .append(play.type().name()).append(',')
+                    .append(play.positionSeconds()).append(',')
+                    .append(play.occurredAt()).append('\n');
+        }
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        if (spooledBytes + bytes.length > maxSize) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(root.resolve(ACTIVE_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Не удалось записать события прослушиваний в спул: " + e.getMessage());
+            return false;
+        }
+        spooledBytes += bytes.length;
+        return true;
+    }
+
+    public synchronized boolean isEmpty() {
+        return spooledBytes == 0;
+    }
+
+    public synchronized long size() {
+        return spooledBytes;
+    }
+
+    /**
+     * Hands spooled events to {@code sink} in batches of {@code batchSize}, deleting each segment once all of it
+     * went through. When the sink throws, the batch in flight and everything after it are rewritten into a new
+     * segment and the exception is rethrown; batches already accepted are not replayed again.
+     */
+    public void replay(int batchSize, Consumer<List<RecordedPlay>> sink) throws IOException {
+        for (Path segment : sealSegments()) {
+            replaySegment(segment, batchSize, sink);
+        }
+    }
+
+    private synchronized List<Path> sealSegments() throws IOException {
+        Path active = root.resolve(ACTIVE_FILE);
+        if (Files.exists(active)) {
+            Files.move(active, nextSegment(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private void replaySegment(Path segment, int batchSize, Consumer<List<RecordedPlay>> sink) throws IOException {
+        List<String> pending = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                pending.add(line);
+                if (pending.size() >= batchSize) {
+                    sendOrRequeue(segment, pending, reader, sink);
+                    pending.clear();
+                }
+            }
+            if (!pending.isEmpty()) {
+                sendOrRequeue(segment, pending, reader, sink);
+            }
+        }
+        release(segment);
+    }
+
+    private void sendOrRequeue(Path segment, List<String> lines, BufferedReader rest,
+                               Consumer<List<RecordedPlay>> sink) throws IOException {
+        try {
+            sink.accept(parse(lines));
+        } catch (RuntimeException e) {
+            requeue(segment, lines, rest);
+            throw e;
+        }
+    }
+
+    private void requeue(Path segment, List<String> lines, BufferedReader rest) throws IOException {
+        Path remainder;
+        synchronized (this) {
+            remainder = nextSegment();
+        }
+        Path temporary = root.resolve(remainder.getFileName() + ".tmp");
+        try (var out = Files.newBufferedWriter(temporary, StandardCharsets.US_ASCII)) {
+            for (String line : lines) {
+                out.write(line);
+                out.write('\n');
+            }
+            String line;
+            while ((line = rest.readLine()) != null) {
+                out.write(line);
+                out.write('\n');
+            }
+        }
+        long kept = Files.size(temporary);
+        Files.move(temporary, remainder, StandardCopyOption.ATOMIC_MOVE);
+        long released = Files.size(segment);
+        Files.delete(segment);
+        synchronized (this) {
+            spooledBytes += kept - released;
+        }
+    }
+
+    private void release(Path segment) throws IOException {
+        long released = Files.size(segment);
+        Files.delete(segment);
+        synchronized (this) {
+            spooledBytes = Math.max(0, spooledBytes - released);
+        }
+    }
+
+    private Path nextSegment() {
+        long sequence = Math.max(System.currentTimeMillis(), segmentSequence + 1);
+        segmentSequence = sequence;
+        return root.resolve(String.format("plays-%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    private static List<RecordedPlay> parse(List<String> lines) {
+        List<RecordedPlay> plays = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String[] fields = line.split(",");
+            if (fields.length != 5) {
+                continue;
+            }
+            try {
+                plays.add(new RecordedPlay(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                        PlayEventType.valueOf(fields[2]), Integer.parseInt(fields[3]), Long.parseLong(fields[4])));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Пропущена повреждённая строка спула прослушиваний: " + line);
+            }
+        }
+        return plays;
+    }
+}
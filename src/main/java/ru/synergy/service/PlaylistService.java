@@ -1,40 +1,225 @@
 package ru.synergy.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.PlaylistBulkResultDto;
+import ru.synergy.dto.PlaylistEntryDto;
+import ru.synergy.dto.PlaylistSummaryDto;
 import ru.synergy.model.Playlist;
+import ru.synergy.model.PlaylistTrack;
+import ru.synergy.model.Track;
+import ru.synergy.model.TrackRating;
 import ru.synergy.model.User;
 import ru.synergy.repository.PlaylistRepository;
+import ru.synergy.repository.PlaylistTrackRepository;
+import ru.synergy.repository.TrackRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PlaylistService {
+    static final long POSITION_GAP = 1024;
+    private static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_BULK_SIZE = 1000;
+
     private final PlaylistRepository playlistRepository;
+    private final PlaylistTrackRepository playlistTrackRepository;
+    private final TrackRepository trackRepository;
+    private final FeedService feedService;
+    private final TrackRatingService trackRatingService;
 
     public List<Playlist> getUserPlaylists(User user) {
         return playlistRepository.findByUser(user);
     }
 
-    public List<Playlist> getPlaylistsOfUsers(List<User> users) {
-        return users.isEmpty() ? List.of() : playlistRepository.findByUserIn(users);
+    public CursorPage<PlaylistTrack> getTracksPage(Playlist playlist, Long afterEntryId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<PlaylistTrack> entries;
+        if (afterEntryId == null) {
+            entries = playlistTrackRepository.findFirstPage(playlist.getId(), limit);
+        } else {
+            Optional<Long> position = playlistTrackRepository.findPosition(playlist.getId(), afterEntryId);
+            if (position.isEmpty()) {
+                return new CursorPage<>(List.of(), null);
+            }
+            entries = playlistTrackRepository.findPageAfter(playlist.getId(), position.get(), afterEntryId, limit);
+        }
+        if (entries.size() <= pageSize) {
+            return new CursorPage<>(entries, null);
+        }
+        List<PlaylistTrack> page = entries.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
+    public CursorPage<PlaylistEntryDto> getEntriesPage(Playlist playlist, Long afterEntryId, int size) {
+        CursorPage<PlaylistTrack> page = getTracksPage(playlist, afterEntryId, size);
+        Map<Long, TrackRating> ratings = trackRatingService.getRatings(
+                page.items().stream().map(entry -> entry.getTrack().getId()).toList());
+        List<PlaylistEntryDto> entries = page.items().stream().map(entry -> {
+            Track track = entry.getTrack();
+            TrackRating rating = ratings.get(track.getId());
+            return new PlaylistEntryDto(entry.getId(), track.getId(), track.getTitle(), track.getArtist(),
+                    track.getGenres(), track.getDurationSeconds(), rating != null ? rating.getAverage() : null);
+        }).toList();
+        return new CursorPage<>(entries, page.nextCursor());
     }
+
+    public PlaylistSummaryDto getSummary(Playlist playlist) {
+        return new PlaylistSummaryDto(playlist.getId(), playlist.getName(),
+                playlist.getTrackCount(), playlist.getTotalDurationSeconds());
+    }
+
     @Transactional
     public void save(Playlist playlist) {
         playlistRepository.save(playlist);
     }
 
+    @Transactional
+    public void create(Playlist playlist) {
+        playlist.setTrackCount(0);
+        playlist.setTotalDurationSeconds(0);
+        playlistRepository.save(playlist);
+        feedService.publishPlaylistCreated(playlist.getUser(), playlist);
+    }
+
+    @Transactional
+    public PlaylistTrack addTrack(Playlist playlist, Track track) {
+        Long maxPosition = playlistTrackRepository.findMaxPosition(playlist.getId());
+        return saveEntry(playlist, track, (maxPosition != null ? maxPosition : 0L) + POSITION_GAP);
+    }
+
+    /**
+     * Inserts a track right after the given entry, or at the start of the playlist when {@code afterEntryId} is null
+     */
+    @Transactional
+    public PlaylistTrack insertTrack(Playlist playlist, Track track, Long afterEntryId) {
+        return saveEntry(playlist, track, positionAfter(playlist.getId(), afterEntryId));
+    }
+
+    @Transactional
+    public void moveEntry(Playlist playlist, Long entryId, Long afterEntryId) {
+        if (entryId.equals(afterEntryId)) {
+            return;
+        }
+        playlistTrackRepository.findPosition(playlist.getId(), entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Трек в плейлисте не найден"));
+        playlistTrackRepository.updatePosition(playlist.getId(), entryId, positionAfter(playlist.getId(), afterEntryId));
+    }
+
+    @Transactional
+    public void removeEntry(Playlist playlist, Long entryId) {
+        int duration = playlistTrackRepository.findDuration(playlist.getId(), entryId)
+                .orElseThrow(() -> new IllegalArgumentException("Трек в плейлисте не найден"));
+        if (playlistTrackRepository.deleteEntry(playlist.getId(), entryId) > 0) {
+            playlistRepository.adjustSummary(playlist.getId(), -1, -duration);
+        }
+    }
+
+    /**
+     * Removes and appends many tracks in one transaction; duplicates, tracks already in the playlist
+     * and unknown ids are skipped instead of failing the whole edit
+     */
+    @Transactional
+    public PlaylistBulkResultDto bulkEdit(Playlist playlist, List<Long> addIds, List<Long> removeIds) {
+        Set<Long> toAdd = addIds != null ? new LinkedHashSet<>(addIds) : new LinkedHashSet<>();
+        Set<Long> toRemove = removeIds != null ? new HashSet<>(removeIds) : new HashSet<>();
+        toAdd.remove(null);
+        toRemove.remove(null);
+        if (toAdd.size() + toRemove.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Слишком много треков за один запрос (максимум " + MAX_BULK_SIZE + ")");
+        }
+
+        int removed = 0;
+        if (!toRemove.isEmpty()) {
+            long duration = playlistTrackRepository.sumDurationOfTracks(playlist.getId(), toRemove);
+            removed = playlistTrackRepository.deleteTracks(playlist.getId(), toRemove);
+            if (removed > 0) {
+                playlistRepository.adjustSummary(playlist.getId(), -removed, -duration);
+            }
+        }
+
+        int requested = addIds != null ? addIds.size() : 0;
+        List<Long> missing = new ArrayList<>();
+        List<PlaylistTrack> entries = new ArrayList<>();
+        if (!toAdd.isEmpty()) {
+            toAdd.removeAll(playlistTrackRepository.findTrackIdsAmong(playlist.getId(), toAdd));
+            Map<Long, Track> tracks = trackRepository.findAllById(toAdd).stream()
+                    .collect(Collectors.toMap(Track::getId, Function.identity()));
+            Long maxPosition = playlistTrackRepository.findMaxPosition(playlist.getId());
+            long position = maxPosition != null ? maxPosition : 0L;
+            long duration = 0;
+            for (Long trackId : toAdd) {
+                Track track = tracks.get(trackId);
+                if (track == null) {
+                    missing.add(trackId);
+                    continue;
+                }
+                position += POSITION_GAP;
+                PlaylistTrack entry = new PlaylistTrack();
+                entry.setPlaylist(playlist);
+                entry.setTrack(track);
+                entry.setPosition(position);
+                entries.add(entry);
+                duration += track.getDurationSeconds() != null ? track.getDurationSeconds() : 0;
+            }
+            if (!entries.isEmpty()) {
+                playlistTrackRepository.saveAll(entries);
+                playlistRepository.adjustSummary(playlist.getId(), entries.size(), duration);
+                feedService.publishTracksAdded(playlist.getUser(), playlist, entries.size());
+            }
+        }
+        return new PlaylistBulkResultDto(entries.size(), removed, requested - entries.size() - missing.size(), missing);
+    }
+
+    @Transactional
     public void deletePlaylist(Long id) {
         if (!playlistRepository.existsById(id)) {
             throw new IllegalArgumentException("Плейлист не найден");
         }
+        feedService.deletePlaylistEvents(id);
         playlistRepository.deleteById(id);
     }
 
     public Optional<Playlist> getPlaylistById(Long id) {
         return playlistRepository.findById(id);
     }
+
+    private PlaylistTrack saveEntry(Playlist playlist, Track track, long position) {
+        PlaylistTrack entry = new PlaylistTrack();
+        entry.setPlaylist(playlist);
+        entry.setTrack(track);
+        entry.setPosition(position);
+        playlistTrackRepository.save(entry);
+        Integer duration = track.getDurationSeconds();
+        playlistRepository.adjustSummary(playlist.getId(), 1, duration != null ? duration : 0);
+        feedService.publishTrackAdded(playlist.getUser(), playlist, track);
+        return entry;
+    }
+
+    private long positionAfter(Long playlistId, Long afterEntryId) {
+        long previous = afterEntryId == null ? 0L : playlistTrackRepository.findPosition(playlistId, afterEntryId)
+                .orElseThrow(() -> new IllegalArgumentException("Трек в плейлисте не найден"));
+        Long next = playlistTrackRepository.findNextPosition(playlistId, previous);
+        if (next == null) {
+            return previous + POSITION_GAP;
+        }
+        if (next - previous < 2) {
+            playlistTrackRepository.rebalance(playlistId, POSITION_GAP);
+            return positionAfter(playlistId, afterEntryId);
+        }
+        return previous + (next - previous) / 2;
+    }
 }
@@ -0,0 +1,113 @@
+package ru.synergy.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy hitters over a sliding window made of {@code buckets} time buckets of {@code bucketMillis} each. A bucket
+ * is recycled when an event for a newer period lands in its slot; a query sums the sketches of the buckets that
+ * are still inside the window and ranks the union of their candidates against that sum.
+ */
+final class SlidingChart {
+    private final long bucketMillis;
+    private final HeavyHitters[] buckets;
+    private final long[] epochs;
+    private final CountMinSketch merged;
+
+    SlidingChart(long bucketMillis, int buckets, int depth, int width, int candidates) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = new HeavyHitters[buckets];
+        this.epochs = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new HeavyHitters(depth, width, candidates);
+        }
+        Arrays.fill(epochs, Long.MIN_VALUE);
+        this.merged = new CountMinSketch(depth, width);
+    }
+
+    void add(String key, int count, long timestamp) {
+        long epoch = Math.floorDiv(timestamp, bucketMillis);
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length);
+        if (epochs[slot] != epoch) {
+            if (epochs[slot] > epoch) {
+                return;
+            }
+            buckets[slot].clear();
+            epochs[slot] = epoch;
+        }
+        buckets[slot].add(key, count);
+    }
+
+    List<Count> top(int limit, long now) {
+        long current = Math.floorDiv(now, bucketMillis);
+        merged.clear();
+        Map<String, Long> keys = new HashMap<>();
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (epochs[slot] > current - buckets.length && epochs[slot] <= current) {
+                merged.addAll(buckets[slot].sketch());
+                for (HeavyHitters.Candidate candidate : buckets[slot].candidates()) {
+                    keys.putIfAbsent(candidate.key, candidate.hash);
+                }
+            }
+        }
+
+        List<Count> counts = new ArrayList<>(keys.size());
+        keys.forEach((key, hash) -> counts.add(new Count(key, merged.estimate(hash))));
+        counts.sort(null);
+        return counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+    }
+
+    long total(long now) {
+        long current = Math.floorDiv(now, bucketMillis);
+        long total = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (epochs[slot] > current - buckets.length && epochs[slot] <= current) {
+                total += buckets[slot].total();
+            }
+        }
+        return total;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(bucketMillis);
+        out.writeInt(buckets.length);
+        for (int slot = 0; slot < buckets.length; slot++) {
+            out.writeLong(epochs[slot]);
+            if (epochs[slot] != Long.MIN_VALUE) {
+                buckets[slot].writeTo(out);
+            }
+        }
+    }
+
+    /**
+     * @return false when the snapshot was taken with another bucket layout; the chart is left empty then
+     */
+    boolean readFrom(DataInput in) throws IOException {
+        if (in.readLong() != bucketMillis || in.readInt() != buckets.length) {
+            return false;
+        }
+        for (int slot = 0; slot < buckets.length; slot++) {
+            epochs[slot] = in.readLong();
+            if (epochs[slot] != Long.MIN_VALUE) {
+                buckets[slot].readFrom(in);
+            } else {
+                buckets[slot].clear();
+            }
+        }
+        return true;
+    }
+
+    record Count(String key, long plays) implements Comparable<Count> {
+        @Override
+        public int compareTo(Count other) {
+            int byPlays = Long.compare(other.plays, plays);
+            return byPlays != 0 ? byPlays : key.compareTo(other.key);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.synergy.dto.StreamTokenDto;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.model.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and checks HMAC-signed stream tokens of the form {@code userId.expiry.signature}.
+ * Entitlement is checked once at issue time; validating a range request only recomputes the MAC.
+ */
+@Service
+@RequiredArgsConstructor
+public class StreamTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SubscriptionStatusService subscriptionStatusService;
+
+    private Duration ttl = Duration.ofHours(1);
+    private ThreadLocal<Mac> macs = macsFor(randomSecret());
+
+    @Value("${stream.token.ttl:PT1H}")
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * An empty secret keeps the random per-process key, which invalidates tokens on restart
+     * and must be replaced by a shared value when running more than one instance
+     */
+    @Value("${stream.token.secret:}")
+    public void setSecret(String secret) {
+        if (secret != null && !secret.isBlank()) {
+            this.macs = macsFor(secret.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    public Optional<StreamTokenDto> issue(User user, Long trackId) {
+        return expiryFor(user).map(expiry -> token(user, trackId, expiry));
+    }
+
+    public Map<Long, String> issueUrls(User user, Collection<Long> trackIds) {
+        Map<Long, String> urls = new LinkedHashMap<>();
+        expiryFor(user).ifPresent(expiry -> trackIds.forEach(trackId -> urls.put(trackId, token(user, trackId, expiry).url())));
+        return urls;
+    }
+
+    public boolean verify(Long trackId, String token) {
+        if (trackId == null || token == null) {
+            return false;
+        }
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || second == token.length() - 1) {
+            return false;
+        }
+        long userId;
+        long expiry;
+        try {
+            userId = Long.parseLong(token, 0, first, 10);
+            expiry = Long.parseLong(token, first + 1, second, 10);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (expiry <= Instant.now().getEpochSecond()) {
+            return false;
+        }
+        byte[] provided;
+        try {
+            provided = Base64.getUrlDecoder().decode(token.substring(second + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(provided, sign(trackId, userId, expiry));
+    }
+
+    private Optional<Long> expiryFor(User user) {
+        if (user == null || user.getId() == null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SubscriptionStatus status = subscriptionStatusService.getStatus(user);
+        if (!status.isActiveAt(now)) {
+            return Optional.empty();
+        }
+        long tokenExpiry = Instant.now().plus(ttl).getEpochSecond();
+        long subscriptionEnd = status.endDate().atZone(ZoneId.systemDefault()).toEpochSecond();
+        return Optional.of(Math.min(tokenExpiry, subscriptionEnd));
+    }
+
+    private StreamTokenDto token(User user, Long trackId, long expiry) {
+        String signature = Base64.getUrlEncoder().withoutPadding().encodeToString(sign(trackId, user.getId(), expiry));
+        String token = user.getId() + "." + expiry + "." + signature;
+        return new StreamTokenDto(trackId, "/stream/" + trackId + "?token=" + token, Instant.ofEpochSecond(expiry));
+    }
+
+    private byte[] sign(long trackId, long userId, long expiry) {
+        Mac mac = macs.get();
+        return mac.doFinal((trackId + ":" + userId + ":" + expiry).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ThreadLocal<Mac> macsFor(byte[] secret) {
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC недоступен", e);
+            }
+        });
+    }
+
+    private static byte[] randomSecret() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.synergy.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@link SubscriptionService} after a user's subscription changed
+ */
+public record SubscriptionChangedEvent(
+        Long userId,
+        boolean active,
+        LocalDateTime endDate
+) {
+}
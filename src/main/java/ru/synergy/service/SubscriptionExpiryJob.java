@@ -0,0 +1,29 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+public class SubscriptionExpiryJob {
+    private final SubscriptionStatusService subscriptionStatusService;
+
+    @Value("${subscription.sweep-batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Scheduled(fixedDelayString = "${subscription.sweep-interval:PT5M}")
+    public int expireLapsed() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired;
+        int total = 0;
+        do {
+            expired = subscriptionStatusService.expireBatch(now, batchSize);
+            total += expired;
+        } while (expired == batchSize);
+        return total;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.synergy.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.synergy.model.User;
@@ -16,6 +17,7 @@ import java.util.UUID;
 public class SubscriptionService {
     private final UserSubscriptionRepository subRepo;
     private final UserRepository userRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserSubscription subscribe(String username, int days) {
@@ -39,7 +41,9 @@ public class SubscriptionService {
         String paymentId = "Mock_" + UUID.randomUUID();
         activeSub.getPaymentIds().add(paymentId);
 
-        return subRepo.save(activeSub);
+        UserSubscription saved = subRepo.save(activeSub);
+        eventPublisher.publishEvent(new SubscriptionChangedEvent(user.getId(), true, newEndDate));
+        return saved;
     }
 
 }
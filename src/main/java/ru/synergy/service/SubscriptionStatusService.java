@@ -0,0 +1,87 @@
+package ru.synergy.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.model.User;
+import ru.synergy.repository.UserSubscriptionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * In-memory entitlement lookup; entries are replaced when {@link SubscriptionService} commits a change
+ * and the TTL only guards against writes made outside this application
+ */
+@Service
+@RequiredArgsConstructor
+public class SubscriptionStatusService {
+    private final UserSubscriptionRepository subRepo;
+
+    private Cache<Long, SubscriptionStatus> cache = buildCache(Duration.ofMinutes(30), 100_000);
+
+    @Value("${subscription.status-cache.max-size:100000}")
+    private long maxSize = 100_000;
+
+    @Value("${subscription.status-cache.ttl:PT30M}")
+    public void setCacheTtl(Duration ttl) {
+        this.cache = buildCache(ttl, maxSize);
+    }
+
+    public SubscriptionStatus getStatus(User user) {
+        if (user == null || user.getId() == null) {
+            return SubscriptionStatus.NONE;
+        }
+        return cache.get(user.getId(), userId -> subRepo.findByUserAndIsActive(user, true)
+                .map(sub -> new SubscriptionStatus(true, sub.getEndDate()))
+                .orElse(SubscriptionStatus.NONE));
+    }
+
+    public boolean hasActiveSubscription(User user) {
+        return getStatus(user).isActiveAt(LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubscriptionChanged(SubscriptionChangedEvent event) {
+        cache.put(event.userId(), new SubscriptionStatus(event.active(), event.endDate()));
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Deactivates one chunk of lapsed subscriptions, oldest end date first
+     *
+     * @return number of subscriptions found in the chunk
+     */
+    @Transactional
+    public int expireBatch(LocalDateTime now, int batchSize) {
+        List<Long> ids = subRepo.findExpiredActiveIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> userIds = subRepo.findUserIdsByIds(ids);
+        subRepo.deactivate(ids);
+        cache.invalidateAll(userIds);
+        return ids.size();
+    }
+
+    public long cachedEntries() {
+        return cache.estimatedSize();
+    }
+
+    private static Cache<Long, SubscriptionStatus> buildCache(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+}
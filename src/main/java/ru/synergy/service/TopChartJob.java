@@ -0,0 +1,26 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TopChartJob {
+    private final TopChartService topChartService;
+
+    @Scheduled(fixedDelayString = "${charts.refresh-interval:PT5S}")
+    public void refresh() {
+        try {
+            topChartService.refresh();
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось обновить чарты: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${charts.snapshot-interval:PT1M}", initialDelayString = "${charts.snapshot-interval:PT1M}")
+    public void snapshot() {
+        topChartService.saveSnapshot();
+    }
+}
@@ -0,0 +1,254 @@
+package ru.synergy.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.synergy.dto.ChartEntryDto;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.ChartCategory;
+import ru.synergy.model.ChartWindow;
+import ru.synergy.model.PlayEventType;
+import ru.synergy.model.Track;
+import ru.synergy.repository.TrackRepository;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Top tracks, artists and genres for each {@link ChartWindow}, aggregated from play events as they are written
+ * instead of grouping the play_events table. Charts are recomputed from the sketches by {@link #refresh()} and
+ * served from the last published copy; the sketches themselves are snapshotted to disk so a restart only loses
+ * plays since the last snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+public class TopChartService {
+    static final int MAX_CHART_SIZE = 100;
+    private static final int SNAPSHOT_MAGIC = 0x43485254;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_FILE = "charts.snapshot";
+
+    private final TrackRepository trackRepository;
+
+    @Value("${charts.sketch.depth:4}")
+    private int sketchDepth = 4;
+
+    @Value("${charts.sketch.width:1024}")
+    private int sketchWidth = 1024;
+
+    @Value("${charts.candidates:200}")
+    private int candidates = 200;
+
+    @Value("${charts.snapshot.enabled:true}")
+    private boolean snapshotEnabled = true;
+
+    @Value("${charts.snapshot.dir:${java.io.tmpdir}/msp-charts}")
+    private String snapshotDir;
+
+    private final Cache<Long, TrackLabel> labels = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final Map<ChartWindow, Map<ChartCategory, SlidingChart>> charts = new EnumMap<>(ChartWindow.class);
+    private volatile Map<ChartWindow, Map<ChartCategory, List<ChartEntryDto>>> published = Map.of();
+
+    @PostConstruct
+    public void init() {
+        resetCharts();
+        if (snapshotEnabled) {
+            loadSnapshot();
+        }
+        refresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (snapshotEnabled) {
+            saveSnapshot();
+        }
+    }
+
+    public List<ChartEntryDto> getChart(ChartWindow window, ChartCategory category, int limit) {
+        List<ChartEntryDto> chart = published.getOrDefault(window, Map.of()).getOrDefault(category, List.of());
+        return chart.size() > limit ? chart.subList(0, limit) : chart;
+    }
+
+    /**
+     * Counts START events; events for tracks that no longer exist are ignored
+     */
+    public void onPlays(List<RecordedPlay> plays) {
+        List<RecordedPlay> starts = plays.stream().filter(play -> play.type() == PlayEventType.START).toList();
+        if (starts.isEmpty()) {
+            return;
+        }
+        Map<Long, TrackLabel> resolved = resolveLabels(starts.stream().map(RecordedPlay::trackId).toList());
+        synchronized (this) {
+            for (RecordedPlay play : starts) {
+                TrackLabel label = resolved.get(play.trackId());
+                if (label == null || label == TrackLabel.MISSING) {
+                    continue;
+                }
+                for (Map<ChartCategory, SlidingChart> byCategory : charts.values()) {
+                    byCategory.get(ChartCategory.TRACKS).add(Long.toString(play.trackId()), 1, play.occurredAt());
+                    if (label.artist() != null) {
+                        byCategory.get(ChartCategory.ARTISTS).add(label.artist(), 1, play.occurredAt());
+                    }
+                    for (String genre : label.genres()) {
+                        byCategory.get(ChartCategory.GENRES).add(genre, 1, play.occurredAt());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ranks every window from the current sketches and publishes the result for readers
+     */
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        Map<ChartWindow, Map<ChartCategory, List<SlidingChart.Count>>> ranked = new EnumMap<>(ChartWindow.class);
+        synchronized (this) {
+            charts.forEach((window, byCategory) -> {
+                Map<ChartCategory, List<SlidingChart.Count>> counts = new EnumMap<>(ChartCategory.class);
+                byCategory.forEach((category, chart) -> counts.put(category, chart.top(MAX_CHART_SIZE, now)));
+                ranked.put(window, counts);
+            });
+        }
+
+        Set<Long> trackIds = new HashSet<>();
+        ranked.values().forEach(counts -> counts.get(ChartCategory.TRACKS)
+                .forEach(count -> trackIds.add(Long.parseLong(count.key()))));
+        Map<Long, TrackLabel> resolved = resolveLabels(trackIds);
+
+        Map<ChartWindow, Map<ChartCategory, List<ChartEntryDto>>> next = new EnumMap<>(ChartWindow.class);
+        ranked.forEach((window, counts) -> {
+            Map<ChartCategory, List<ChartEntryDto>> entries = new EnumMap<>(ChartCategory.class);
+            counts.forEach((category, list) -> entries.put(category, toEntries(category, list, resolved)));
+            next.put(window, entries);
+        });
+        published = next;
+    }
+
+    public synchronized void saveSnapshot() {
+        Path directory = Paths.get(snapshotDir);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(sketchDepth);
+                out.writeInt(sketchWidth);
+                for (ChartWindow window : ChartWindow.values()) {
+                    for (ChartCategory category : ChartCategory.values()) {
+                        charts.get(window).get(category).writeTo(out);
+                    }
+                }
+            }
+            Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Не удалось сохранить снимок чартов: " + e.getMessage());
+        }
+    }
+
+    synchronized void loadSnapshot() {
+        Path file = Paths.get(snapshotDir).resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION
+                    || in.readInt() != sketchDepth || in.readInt() != sketchWidth) {
+                System.err.println("Снимок чартов записан в другом формате и будет пропущен");
+                return;
+            }
+            for (ChartWindow window : ChartWindow.values()) {
+                for (ChartCategory category : ChartCategory.values()) {
+                    if (!charts.get(window).get(category).readFrom(in)) {
+                        System.err.println("Снимок чартов записан с другой разбивкой окон и будет пропущен");
+                        resetCharts();
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Не удалось прочитать снимок чартов: " + e.getMessage());
+            resetCharts();
+        }
+    }
+
+    private void resetCharts() {
+        charts.clear();
+        for (ChartWindow window : ChartWindow.values()) {
+            Map<ChartCategory, SlidingChart> byCategory = new EnumMap<>(ChartCategory.class);
+            for (ChartCategory category : ChartCategory.values()) {
+                byCategory.put(category, new SlidingChart(window.getBucket().toMillis(), window.getBuckets(),
+                        sketchDepth, sketchWidth, candidates));
+            }
+            charts.put(window, byCategory);
+        }
+    }
+
+    private Map<Long, TrackLabel> resolveLabels(Collection<Long> trackIds) {
+        Map<Long, TrackLabel> resolved = new HashMap<>(labels.getAllPresent(new HashSet<>(trackIds)));
+        Set<Long> missing = new HashSet<>(trackIds);
+        missing.removeAll(resolved.keySet());
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        for (Track track : trackRepository.findAllById(missing)) {
+            resolved.put(track.getId(), TrackLabel.of(track));
+        }
+        for (Long id : missing) {
+            TrackLabel label = resolved.computeIfAbsent(id, unknown -> TrackLabel.MISSING);
+            labels.put(id, label);
+        }
+        return resolved;
+    }
+
+    private static List<ChartEntryDto> toEntries(ChartCategory category, List<SlidingChart.Count> counts,
+                                                 Map<Long, TrackLabel> resolved) {
+        List<ChartEntryDto> entries = new ArrayList<>(counts.size());
+        for (SlidingChart.Count count : counts) {
+            if (category != ChartCategory.TRACKS) {
+                entries.add(new ChartEntryDto(null, count.key(), null, count.plays()));
+                continue;
+            }
+            long trackId = Long.parseLong(count.key());
+            TrackLabel label = resolved.get(trackId);
+            if (label != null && label != TrackLabel.MISSING) {
+                entries.add(new ChartEntryDto(trackId, label.title(), label.artist(), count.plays()));
+            }
+        }
+        return List.copyOf(entries);
+    }
+
+    private record TrackLabel(String title, String artist, List<String> genres) {
+        static final TrackLabel MISSING = new TrackLabel(null, null, List.of());
+
+        static TrackLabel of(Track track) {
+            List<String> genres = new ArrayList<>();
+            if (track.getGenres() != null) {
+                for (String genre : track.getGenres().split(",")) {
+                    String trimmed = genre.trim();
+                    if (!trimmed.isEmpty()) {
+                        genres.add(trimmed.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            String artist = track.getArtist() != null && !track.getArtist().isBlank() ? track.getArtist().trim() : null;
+            return new TrackLabel(track.getTitle(), artist, List.copyOf(genres));
+        }
+    }
+}
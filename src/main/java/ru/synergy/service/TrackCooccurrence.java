@@ -0,0 +1,140 @@
+package ru.synergy.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sparse symmetric co-occurrence matrix over tracks. A basket is one playlist or one listener's highly rated
+ * tracks; every pair of distinct tracks in a basket adds one to both rows, and {@code frequency} counts
+ * the baskets each track appears in. Not thread-safe: callers serialize updates.
+ */
+final class TrackCooccurrence {
+    private final Map<Integer, IntIntCounter> rows = new HashMap<>();
+    private final IntIntCounter frequency = new IntIntCounter(1024);
+
+    /**
+     * Counts the co-occurrences of a basket's tracks in parallel shards and merges the shard matrices
+     */
+    static TrackCooccurrence build(List<int[]> baskets, ForkJoinPool pool, int shardSize) {
+        return pool.invoke(new BuildTask(baskets, 0, baskets.size(), Math.max(1, shardSize)));
+    }
+
+    void addBasket(int[] tracks) {
+        int[] distinct = Arrays.stream(tracks).distinct().toArray();
+        for (int i = 0; i < distinct.length; i++) {
+            frequency.increment(distinct[i]);
+            for (int j = i + 1; j < distinct.length; j++) {
+                addPair(distinct[i], distinct[j]);
+            }
+        }
+    }
+
+    /**
+     * Adds a track that just joined a basket already holding {@code others}
+     */
+    void addToBasket(int track, int[] others) {
+        frequency.increment(track);
+        for (int other : Arrays.stream(others).distinct().toArray()) {
+            if (other != track) {
+                addPair(track, other);
+            }
+        }
+    }
+
+    int[] tracks() {
+        int[] tracks = new int[frequency.size()];
+        int[] size = {0};
+        frequency.forEach((track, count) -> tracks[size[0]++] = track);
+        return tracks;
+    }
+
+    int count(int a, int b) {
+        IntIntCounter row = rows.get(a);
+        return row != null ? row.get(b) : 0;
+    }
+
+    /**
+     * Top {@code limit} tracks by cosine similarity {@code co(a, b) / sqrt(freq(a) * freq(b))}
+     */
+    TrackNeighbors topNeighbors(int track, int limit) {
+        IntIntCounter row = rows.get(track);
+        if (row == null || limit <= 0) {
+            return TrackNeighbors.EMPTY;
+        }
+        double trackFrequency = Math.max(1, frequency.get(track));
+        PriorityQueue<TrackNeighbors.Scored> top = new PriorityQueue<>(limit + 1);
+        row.forEach((other, count) -> {
+            double score = count / Math.sqrt(trackFrequency * Math.max(1, frequency.get(other)));
+            top.offer(new TrackNeighbors.Scored(other, (float) score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        int[] ids = new int[top.size()];
+        float[] scores = new float[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            TrackNeighbors.Scored scored = top.poll();
+            ids[i] = scored.track();
+            scores[i] = scored.score();
+        }
+        return new TrackNeighbors(ids, scores);
+    }
+
+    private void addPair(int a, int b) {
+        rows.computeIfAbsent(a, key -> new IntIntCounter(8)).increment(b);
+        rows.computeIfAbsent(b, key -> new IntIntCounter(8)).increment(a);
+    }
+
+    private void mergeFrom(TrackCooccurrence other) {
+        frequency.addAll(other.frequency);
+        other.rows.forEach((track, row) -> {
+            IntIntCounter existing = rows.get(track);
+            if (existing == null) {
+                rows.put(track, row);
+            } else {
+                existing.addAll(row);
+            }
+        });
+    }
+
+    private static final class BuildTask extends RecursiveTask<TrackCooccurrence> {
+        private final List<int[]> baskets;
+        private final int from;
+        private final int to;
+        private final int shardSize;
+
+        BuildTask(List<int[]> baskets, int from, int to, int shardSize) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+            this.shardSize = shardSize;
+        }
+
+        @Override
+        protected TrackCooccurrence compute() {
+            if (to - from <= shardSize) {
+                TrackCooccurrence shard = new TrackCooccurrence();
+                for (int i = from; i < to; i++) {
+                    shard.addBasket(baskets.get(i));
+                }
+                return shard;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(baskets, from, middle, shardSize);
+            left.fork();
+            TrackCooccurrence right = new BuildTask(baskets, middle, to, shardSize).compute();
+            TrackCooccurrence merged = left.join();
+            if (merged.rows.size() < right.rows.size()) {
+                right.mergeFrom(merged);
+                return right;
+            }
+            merged.mergeFrom(right);
+            return merged;
+        }
+    }
+}
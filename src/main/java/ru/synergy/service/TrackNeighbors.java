@@ -0,0 +1,16 @@
+package ru.synergy.service;
+
+/**
+ * Most similar tracks to one track, best first; {@code trackIds[i]} scored {@code scores[i]}
+ */
+record TrackNeighbors(int[] trackIds, float[] scores) {
+    static final TrackNeighbors EMPTY = new TrackNeighbors(new int[0], new float[0]);
+
+    record Scored(int track, float score) implements Comparable<Scored> {
+        @Override
+        public int compareTo(Scored other) {
+            int byScore = Float.compare(score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(other.track, track);
+        }
+    }
+}
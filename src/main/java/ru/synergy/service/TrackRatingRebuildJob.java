@@ -0,0 +1,46 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.synergy.repository.TrackRatingRepository;
+import ru.synergy.repository.TrackRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class TrackRatingRebuildJob {
+    private static final int BATCH_SIZE = 1000;
+
+    private final TrackRatingService trackRatingService;
+    private final TrackRatingRepository trackRatingRepository;
+    private final TrackRepository trackRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissing() {
+        List<Long> trackIds;
+        do {
+            trackIds = trackRatingRepository.findTrackIdsWithoutRating(PageRequest.of(0, BATCH_SIZE));
+            if (!trackIds.isEmpty()) {
+                trackRatingService.rebuild(trackIds);
+            }
+        } while (trackIds.size() == BATCH_SIZE);
+    }
+
+    @Scheduled(cron = "${ratings.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        long afterId = 0L;
+        List<Long> trackIds;
+        do {
+            trackIds = trackRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (!trackIds.isEmpty()) {
+                trackRatingService.rebuild(trackIds);
+                afterId = trackIds.get(trackIds.size() - 1);
+            }
+        } while (trackIds.size() == BATCH_SIZE);
+    }
+}
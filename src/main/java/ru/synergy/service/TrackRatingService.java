@@ -0,0 +1,52 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.model.TrackRating;
+import ru.synergy.repository.TrackRatingRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class TrackRatingService {
+    private final TrackRatingRepository trackRatingRepository;
+
+    public Optional<TrackRating> getRating(Long trackId) {
+        return trackRatingRepository.findById(trackId);
+    }
+
+    public Map<Long, TrackRating> getRatings(Collection<Long> trackIds) {
+        Map<Long, TrackRating> ratings = new HashMap<>();
+        if (trackIds.isEmpty()) {
+            return ratings;
+        }
+        trackRatingRepository.findAllById(trackIds).forEach(rating -> ratings.put(rating.getTrackId(), rating));
+        return ratings;
+    }
+
+    @Transactional
+    public void createFor(Collection<Long> trackIds) {
+        if (!trackIds.isEmpty()) {
+            trackRatingRepository.insertMissing(trackIds);
+        }
+    }
+
+    @Transactional
+    public void recordRating(Long trackId, int rating) {
+        if (trackRatingRepository.increment(trackId, rating) == 0) {
+            rebuild(List.of(trackId));
+        }
+    }
+
+    @Transactional
+    public void rebuild(Collection<Long> trackIds) {
+        trackRatingRepository.insertMissing(trackIds);
+        trackRatingRepository.recompute(trackIds);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TrackRecommendationJob {
+    private final TrackRecommendationService trackRecommendationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${recommendations.rebuild-cron:0 0 4 * * SUN}")
+    public void rebuild() {
+        try {
+            trackRecommendationService.rebuild();
+        } catch (DataAccessException | IllegalStateException e) {
+            System.err.println("Не удалось перестроить рекомендации треков: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.increment-interval:PT1M}")
+    public void applyIncrements() {
+        trackRecommendationService.applyIncrements();
+    }
+}
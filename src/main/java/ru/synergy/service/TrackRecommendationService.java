@@ -0,0 +1,307 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.RecommendedTrackDto;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.repository.PlaylistTrackRepository;
+import ru.synergy.repository.TrackRepository;
+import ru.synergy.repository.TrackReviewRepository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Item-to-item recommendations from playlist and rating co-occurrence. {@link #rebuild()} counts every basket
+ * in a fork-join pool; {@link #applyIncrements()} then folds in playlist entries and reviews added since,
+ * read by primary key past a watermark, and refreshes only the neighbor lists they touch.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrackRecommendationService {
+    private static final int FETCH_SIZE = 10_000;
+    private static final int SEED_LIMIT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackRepository trackRepository;
+    private final TrackReviewRepository trackReviewRepository;
+    private final PlaylistTrackRepository playlistTrackRepository;
+
+    @Value("${recommendations.neighbors:20}")
+    private int neighborCount = 20;
+
+    @Value("${recommendations.max-basket-size:200}")
+    private int maxBasketSize = 200;
+
+    @Value("${recommendations.min-rating:4}")
+    private int minRating = 4;
+
+    @Value("${recommendations.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${recommendations.shard-size:1000}")
+    private int shardSize = 1000;
+
+    @Value("${recommendations.increment-batch-size:5000}")
+    private int incrementBatchSize = 5000;
+
+    private volatile Map<Integer, TrackNeighbors> neighbors = new ConcurrentHashMap<>();
+    private TrackCooccurrence cooccurrence;
+    private long entryWatermark;
+    private long reviewWatermark;
+
+    public List<RecommendedTrackDto> similarTracks(Long trackId, int limit) {
+        int key = toKey(trackId);
+        if (key < 0) {
+            return List.of();
+        }
+        TrackNeighbors found = neighbors.getOrDefault(key, TrackNeighbors.EMPTY);
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        for (int i = 0; i < found.trackIds().length && scores.size() < limit; i++) {
+            scores.put((long) found.trackIds()[i], (double) found.scores()[i]);
+        }
+        return toDtos(scores);
+    }
+
+    /**
+     * Sums the neighbor scores of the user's recently liked and playlisted tracks, leaving those seeds out
+     */
+    public List<RecommendedTrackDto> recommendFor(User user, int limit) {
+        if (user == null || user.getId() == null || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> seeds = new HashSet<>(trackReviewRepository.findLikedTrackIds(
+                user.getId(), minRating, PageRequest.of(0, SEED_LIMIT)));
+        seeds.addAll(playlistTrackRepository.findRecentTrackIdsOfUser(user.getId(), PageRequest.of(0, SEED_LIMIT)));
+
+        Map<Integer, TrackNeighbors> current = neighbors;
+        Map<Long, Double> totals = new HashMap<>();
+        for (Long seed : seeds) {
+            int key = toKey(seed);
+            TrackNeighbors found = key >= 0 ? current.getOrDefault(key, TrackNeighbors.EMPTY) : TrackNeighbors.EMPTY;
+            for (int i = 0; i < found.trackIds().length; i++) {
+                long candidate = found.trackIds()[i];
+                if (!seeds.contains(candidate)) {
+                    totals.merge(candidate, (double) found.scores()[i], Double::sum);
+                }
+            }
+        }
+        Map<Long, Double> best = totals.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        return toDtos(best);
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Long maxEntryId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM playlist_entries", Long.class);
+        Long maxReviewId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM track_reviews", Long.class);
+
+        List<int[]> baskets = new ArrayList<>();
+        BasketCollector playlists = new BasketCollector(baskets);
+        stream("SELECT playlist_id, track_id FROM playlist_entries WHERE id <= ? ORDER BY playlist_id, id",
+                rs -> playlists.add(rs.getLong(1), rs.getLong(2)), maxEntryId);
+        playlists.flush();
+        BasketCollector listeners = new BasketCollector(baskets);
+        stream("SELECT user_id, track_id FROM track_reviews WHERE id <= ? AND rating >= ? ORDER BY user_id, id",
+                rs -> listeners.add(rs.getLong(1), rs.getLong(2)), maxReviewId, minRating);
+        listeners.flush();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            TrackCooccurrence rebuilt = TrackCooccurrence.build(baskets, pool, shardSize);
+            Map<Integer, TrackNeighbors> computed = new ConcurrentHashMap<>();
+            int[] tracks = rebuilt.tracks();
+            pool.submit(() -> Arrays.stream(tracks).parallel()
+                    .forEach(track -> computed.put(track, rebuilt.topNeighbors(track, neighborCount)))).get();
+            cooccurrence = rebuilt;
+            neighbors = computed;
+            entryWatermark = maxEntryId != null ? maxEntryId : 0L;
+            reviewWatermark = maxReviewId != null ? maxReviewId : 0L;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Перестроение рекомендаций прервано");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не удалось перестроить рекомендации", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return number of playlist entries and reviews folded in
+     */
+    @Transactional(readOnly = true)
+    public synchronized int applyIncrements() {
+        if (cooccurrence == null) {
+            return 0;
+        }
+        Set<Integer> dirty = new HashSet<>();
+        int applied = 0;
+        try {
+            applied += applyNewEntries(dirty);
+            applied += applyNewReviews(dirty);
+        } catch (DataAccessException e) {
+            System.err.println("Не удалось обновить рекомендации: " + e.getMessage());
+        }
+        for (int track : dirty) {
+            neighbors.put(track, cooccurrence.topNeighbors(track, neighborCount));
+        }
+        return applied;
+    }
+
+    private int applyNewEntries(Set<Integer> dirty) {
+        List<long[]> entries = jdbcTemplate.query(
+                "SELECT id, playlist_id, track_id FROM playlist_entries WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)},
+                entryWatermark, incrementBatchSize);
+        Map<Long, List<long[]>> byPlaylist = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry[1], LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<Long, List<long[]>> playlist : byPlaylist.entrySet()) {
+            long upTo = playlist.getValue().get(playlist.getValue().size() - 1)[0];
+            List<long[]> basket = jdbcTemplate.query(
+                    "SELECT id, track_id FROM playlist_entries WHERE playlist_id = ? AND id <= ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                    playlist.getKey(), upTo, maxBasketSize);
+            for (long[] entry : playlist.getValue()) {
+                foldIn(entry[0], entry[2], basket, dirty);
+            }
+        }
+        if (!entries.isEmpty()) {
+            entryWatermark = entries.get(entries.size() - 1)[0];
+        }
+        return entries.size();
+    }
+
+    private int applyNewReviews(Set<Integer> dirty) {
+        List<long[]> reviews = jdbcTemplate.query(
+                "SELECT id, user_id, track_id, rating FROM track_reviews WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)},
+                reviewWatermark, incrementBatchSize);
+        for (long[] review : reviews) {
+            if (review[3] < minRating) {
+                continue;
+            }
+            List<long[]> basket = jdbcTemplate.query(
+                    "SELECT id, track_id FROM track_reviews WHERE user_id = ? AND rating >= ? AND id <= ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                    review[1], minRating, review[0], maxBasketSize);
+            foldIn(review[0], review[2], basket, dirty);
+        }
+        if (!reviews.isEmpty()) {
+            reviewWatermark = reviews.get(reviews.size() - 1)[0];
+        }
+        return reviews.size();
+    }
+
+    /**
+     * Pairs a new basket row with the rows that were already there, i.e. those with a smaller id, so that
+     * every pair is counted exactly once however the rows are split across increments. Rows past the
+     * basket size cap are ignored, as in the full rebuild.
+     */
+    private void foldIn(long rowId, long trackId, List<long[]> basket, Set<Integer> dirty) {
+        int track = toKey(trackId);
+        if (track < 0 || basket.stream().noneMatch(row -> row[0] == rowId)) {
+            return;
+        }
+        int[] earlier = basket.stream()
+                .filter(row -> row[0] < rowId)
+                .mapToInt(row -> toKey(row[1]))
+                .filter(key -> key >= 0)
+                .distinct()
+                .toArray();
+        if (Arrays.stream(earlier).anyMatch(key -> key == track)) {
+            return;
+        }
+        cooccurrence.addToBasket(track, earlier);
+        dirty.add(track);
+        for (int other : earlier) {
+            dirty.add(other);
+        }
+    }
+
+    private List<RecommendedTrackDto> toDtos(Map<Long, Double> scores) {
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Track> tracks = trackRepository.findAllById(scores.keySet()).stream()
+                .collect(Collectors.toMap(Track::getId, Function.identity()));
+        List<RecommendedTrackDto> result = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            Track track = tracks.get(id);
+            if (track != null) {
+                result.add(new RecommendedTrackDto(id, track.getTitle(), track.getArtist(), score));
+            }
+        });
+        return result;
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... params) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement;
+        }, handler);
+    }
+
+    private static int toKey(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE ? id.intValue() : -1;
+    }
+
+    /**
+     * Groups rows sorted by owner into baskets, keeping at most {@code maxBasketSize} tracks of each
+     */
+    private final class BasketCollector {
+        private final List<int[]> baskets;
+        private final int[] buffer = new int[Math.max(1, maxBasketSize)];
+        private long owner = Long.MIN_VALUE;
+        private int size;
+
+        BasketCollector(List<int[]> baskets) {
+            this.baskets = baskets;
+        }
+
+        void add(long ownerId, long trackId) {
+            if (ownerId != owner) {
+                flush();
+                owner = ownerId;
+            }
+            int key = toKey(trackId);
+            if (key >= 0 && size < buffer.length) {
+                buffer[size++] = key;
+            }
+        }
+
+        void flush() {
+            if (size > 0) {
+                baskets.add(Arrays.copyOf(buffer, size));
+            }
+            size = 0;
+        }
+    }
+}
@@ -4,26 +4,61 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.synergy.model.Track;
+import ru.synergy.model.TrackRating;
 import ru.synergy.model.TrackReview;
 import ru.synergy.model.User;
 import ru.synergy.repository.TrackRepository;
 import ru.synergy.repository.TrackReviewRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class TrackReviewService {
     private final TrackReviewRepository trackReviewRepository;
     private final TrackRepository trackRepository;
+    private final TrackRatingService trackRatingService;
+    private final FeedService feedService;
 
     public List<TrackReview> getReviews(Long trackId) {
         return trackReviewRepository.findByTrackId(trackId);
     }
 
+    public Map<Long, List<TrackReview>> getReviewsByTrackIds(Collection<Long> trackIds) {
+        Map<Long, List<TrackReview>> reviewsByTrack = new HashMap<>();
+        if (trackIds.isEmpty()) {
+            return reviewsByTrack;
+        }
+        trackIds.forEach(id -> reviewsByTrack.put(id, new ArrayList<>()));
+        for (TrackReview review : trackReviewRepository.findWithUserByTrackIdIn(trackIds)) {
+            reviewsByTrack.get(review.getTrack().getId()).add(review);
+        }
+        return reviewsByTrack;
+    }
+
     public Double getAverageRating(Long trackId) {
-        Double avg = trackReviewRepository.findAverageRating(trackId);
-        return avg != null ? Math.round(avg * 10.0) / 10.0 : null;
+        return trackRatingService.getRating(trackId)
+                .map(TrackRating::getAverage)
+                .map(TrackReviewService::round)
+                .orElse(null);
+    }
+
+    public Map<Long, Double> getAverageRatings(Collection<Long> trackIds) {
+        Map<Long, Double> ratings = new HashMap<>();
+        trackRatingService.getRatings(trackIds).forEach((trackId, rating) -> {
+            if (rating.getAverage() != null) {
+                ratings.put(trackId, round(rating.getAverage()));
+            }
+        });
+        return ratings;
+    }
+
+    private static double round(double avg) {
+        return Math.round(avg * 10.0) / 10.0;
     }
 
     @Transactional
@@ -38,5 +73,11 @@ public class TrackReviewService {
         review.setRating(rating);
         review.setComment(comment);
         trackReviewRepository.save(review);
+        if (rating != null) {
+            trackRatingService.recordRating(trackId, rating);
+        }
+        if (user != null) {
+            feedService.publishReviewPosted(user, track, rating);
+        }
     }
 }
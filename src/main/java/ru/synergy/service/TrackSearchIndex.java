@@ -0,0 +1,228 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.synergy.model.Track;
+import ru.synergy.repository.TrackRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+public class TrackSearchIndex {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ARTIST_WEIGHT = 2;
+    private static final int GENRE_WEIGHT = 1;
+    private static final int EXACT_TERM_FACTOR = 2;
+    /** Shorter prefixes would match most of the catalog; one-letter words are still indexed as whole terms. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TrackRepository trackRepository;
+
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final Map<Long, Posting[]> postingsByTrack = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        List<Track> batch;
+        do {
+            batch = trackRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            batch.forEach(this::index);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Track track) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, track.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, track.getArtist(), ARTIST_WEIGHT);
+        addTerms(weights, track.getGenres(), GENRE_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(track.getId());
+            Posting[] trackPostings = new Posting[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                Posting posting = postings.computeIfAbsent(entry.getKey(), Posting::new);
+                posting.put(track.getId(), entry.getValue());
+                trackPostings[i++] = posting;
+            }
+            postingsByTrack.put(track.getId(), trackPostings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long trackId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(trackId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of tracks matching every query token, best score first. Postings are sorted by track id, so
+     * the shortest list drives the intersection and the others are probed by binary search from a moving cursor.
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || offset < 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Posting[] lists = new Posting[tokens.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(tokens.get(i));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(Posting::size));
+
+            long wanted = (long) offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingInt(Hit::score)
+                    .thenComparing(Comparator.comparingLong(Hit::trackId).reversed()));
+            int[] cursors = new int[lists.length];
+            Posting shortest = lists[0];
+            candidates:
+            for (int k = 0; k < shortest.size; k++) {
+                long trackId = shortest.trackIds[k];
+                int score = shortest.weights[k];
+                for (int i = 1; i < lists.length; i++) {
+                    int at = lists[i].find(trackId, cursors[i]);
+                    if (at < 0) {
+                        cursors[i] = -at - 1;
+                        if (cursors[i] == lists[i].size) {
+                            break candidates;
+                        }
+                        continue candidates;
+                    }
+                    cursors[i] = at + 1;
+                    score += lists[i].weights[at];
+                }
+                top.offer(new Hit(trackId, score));
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::trackId));
+            if (offset >= hits.size()) {
+                return List.of();
+            }
+            return hits.subList(offset, hits.size()).stream().map(Hit::trackId).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long trackId) {
+        Posting[] trackPostings = postingsByTrack.remove(trackId);
+        if (trackPostings == null) {
+            return;
+        }
+        for (Posting posting : trackPostings) {
+            posting.remove(trackId);
+            if (posting.size == 0) {
+                postings.remove(posting.term);
+            }
+        }
+    }
+
+    private void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            for (int length = MIN_PREFIX_LENGTH; length < token.length(); length++) {
+                weights.merge(token.substring(0, length), weight, Integer::sum);
+            }
+            weights.merge(token, weight * EXACT_TERM_FACTOR, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        return Arrays.stream(TOKEN_SEPARATOR.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private record Hit(long trackId, int score) {
+    }
+
+    /**
+     * Track ids of one term in ascending order with their weights in parallel primitive arrays.
+     */
+    private static final class Posting {
+        private final String term;
+        private long[] trackIds = new long[1];
+        private int[] weights = new int[1];
+        private int size;
+
+        Posting(String term) {
+            this.term = term;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int find(long trackId, int from) {
+            return Arrays.binarySearch(trackIds, from, size, trackId);
+        }
+
+        void put(long trackId, int weight) {
+            int at = find(trackId, 0);
+            if (at >= 0) {
+                weights[at] = weight;
+                return;
+            }
+            at = -at - 1;
+            if (size == trackIds.length) {
+                int capacity = size + (size >> 1) + 1;
+                trackIds = Arrays.copyOf(trackIds, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            System.arraycopy(trackIds, at, trackIds, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            trackIds[at] = trackId;
+            weights[at] = weight;
+            size++;
+        }
+
+        void remove(long trackId) {
+            int at = find(trackId, 0);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(trackIds, at + 1, trackIds, at, size - at - 1);
+            System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+            size--;
+        }
+    }
+}
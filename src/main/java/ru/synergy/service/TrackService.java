@@ -1,37 +1,143 @@
 package ru.synergy.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import ru.synergy.dto.CursorPage;
 import ru.synergy.model.Track;
 import ru.synergy.repository.TrackRepository;
 
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TrackService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TrackRepository trackRepository;
     private final MinioService minioService;
+    private final TrackSearchIndex searchIndex;
+    private final TrackRatingService trackRatingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${upload.part-size:16777216}")
+    private long partSize = 16L * 1024 * 1024;
 
     public List<Track> getAllTracks() {
         return trackRepository.findAll();
     }
 
+    public CursorPage<Track> getTracksPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Track> tracks = trackRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1));
+        if (tracks.size() <= pageSize) {
+            return new CursorPage<>(tracks, null);
+        }
+        List<Track> page = tracks.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).getId());
+    }
+
     public List<Track> searchTracks(String query) {
+        return searchTracks(query, 0, DEFAULT_PAGE_SIZE);
+    }
+
+    public List<Track> searchTracks(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
         if (query == null || query.trim().isEmpty()) {
-            return getAllTracks();
+            return getTracksPage(null, pageSize).items();
         }
-        return trackRepository.searchTracks(query.trim());
+        long offset = (long) Math.max(page, 0) * pageSize;
+        if (offset > Integer.MAX_VALUE) {
+            return List.of();
+        }
+        if (!searchIndex.isReady()) {
+            return trackRepository.searchTracks(query.trim(), PageRequest.of(Math.max(page, 0), pageSize));
+        }
+
+        List<Long> ids = searchIndex.search(query, (int) offset, pageSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Track> tracksById = trackRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Track::getId, Function.identity()));
+        return ids.stream()
+                .map(tracksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Загружает аудио вне транзакции, чтобы медленный клиент не держал соединение с БД на всё время передачи,
+     * и затем сохраняет трек короткой транзакцией. Если сохранить не удалось, загруженный объект удаляется.
+     */
+    public Track saveTrack(Track track, InputStream content, String fileName, String contentType) throws Exception {
+        storeAudio(track, content, fileName, contentType);
+        try {
+            return transactionTemplate.execute(status -> {
+                Track saved = trackRepository.save(track);
+                trackRatingService.createFor(List.of(saved.getId()));
+                searchIndex.index(saved);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            discardAudio(fileName);
+            throw e;
+        }
+    }
+
+    public void discardAudio(String objectName) {
+        try {
+            minioService.removeObject("music-bucket", objectName);
+        } catch (Exception e) {
+            System.err.println("Ошибка при удалении файла " + objectName + ": " + e.getMessage());
+        }
+    }
+
+    public void storeAudio(Track track, InputStream content, String fileName, String contentType) throws Exception {
+        if (fileName == null || fileName.isBlank() || fileName.contains("/")) {
+            throw new IllegalArgumentException("Некорректное имя файла");
+        }
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        Mp3DurationProbe probe = new Mp3DurationProbe(content);
+        try (DigestInputStream in = new DigestInputStream(probe, digest)) {
+            minioService.uploadStream("music-bucket", fileName, in,
+                    contentType != null ? contentType : "application/octet-stream", partSize);
+        }
+        track.setFileUrl(minioService.getFileUrl("music-bucket", fileName));
+        track.setObjectName(fileName);
+        track.setChecksum(HexFormat.of().formatHex(digest.digest()));
+        track.setDurationSeconds(probe.durationSeconds());
     }
 
     @Transactional
+    public List<Track> saveTracks(List<Track> tracks) {
+        List<Track> saved = trackRepository.saveAll(tracks);
+        trackRatingService.createFor(saved.stream().map(Track::getId).toList());
+        saved.forEach(searchIndex::index);
+        return saved;
+    }
+
     public Track saveTrack(Track track, MultipartFile file) throws Exception {
-        minioService.uploadFile("music-bucket", file.getOriginalFilename(), file);
-        track.setFileUrl(minioService.getFileUrl("music-bucket", file.getOriginalFilename()));
-        return trackRepository.save(track);
+        return saveTrack(track, file.getInputStream(), file.getOriginalFilename(), file.getContentType());
+    }
+
+    public Optional<Track> getTrackById(Long id) {
+        return trackRepository.findById(id);
     }
 
     public Optional<Track> getTrackByFileUrl(String fileUrl) {
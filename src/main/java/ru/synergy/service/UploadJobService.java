@@ -0,0 +1,156 @@
+package ru.synergy.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import ru.synergy.dto.UploadJobDto;
+import ru.synergy.model.Track;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class UploadJobService {
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final TrackService trackService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${upload.jobs.retention:PT1H}")
+    private Duration retention = Duration.ofHours(1);
+
+    public UploadJobService(TrackService trackService,
+                            @Value("${upload.jobs.workers:4}") int workers,
+                            @Value("${upload.jobs.queue-capacity:100}") int queueCapacity) {
+        this.trackService = trackService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "upload-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public String submit(Track track, MultipartFile file, String username) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Файл пустой");
+        }
+        removeExpiredJobs();
+
+        Path tempFile = Files.createTempFile("upload-", ".part");
+        try {
+            file.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), username, file.getSize());
+        jobs.put(job.id, job);
+        String fileName = file.getOriginalFilename();
+        String contentType = file.getContentType();
+        try {
+            executor.execute(() -> process(job, track, tempFile, fileName, contentType));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(tempFile);
+            throw new IllegalStateException("Слишком много загрузок в очереди, попробуйте позже");
+        }
+        return job.id;
+    }
+
+    public Optional<UploadJobDto> getJob(String id, String username) {
+        UploadJob job = jobs.get(id);
+        if (job == null || !job.username.equals(username)) {
+            return Optional.empty();
+        }
+        return Optional.of(new UploadJobDto(job.id, job.status.name(), job.bytesUploaded.get(),
+                job.bytesTotal, job.trackId, job.error));
+    }
+
+    private void process(UploadJob job, Track track, Path tempFile, String fileName, String contentType) {
+        job.status = Status.RUNNING;
+        try (InputStream in = new CountingInputStream(Files.newInputStream(tempFile), job.bytesUploaded)) {
+            Track saved = trackService.saveTrack(track, in, fileName, contentType);
+            job.trackId = saved.getId();
+            job.status = Status.DONE;
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = System.currentTimeMillis();
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                System.err.println("Не удалось удалить временный файл " + tempFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void removeExpiredJobs() {
+        long threshold = System.currentTimeMillis() - retention.toMillis();
+        jobs.values().removeIf(job -> job.finishedAt != 0 && job.finishedAt < threshold);
+    }
+
+    private static final class UploadJob {
+        private final String id;
+        private final String username;
+        private final long bytesTotal;
+        private final AtomicLong bytesUploaded = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile Long trackId;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        private UploadJob(String id, String username, long bytesTotal) {
+            this.id = id;
+            this.username = username;
+            this.bytesTotal = bytesTotal;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        private CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                counter.addAndGet(read);
+            }
+            return read;
+        }
+    }
+}
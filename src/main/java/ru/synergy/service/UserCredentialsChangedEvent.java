@@ -0,0 +1,9 @@
+package ru.synergy.service;
+
+/**
+ * Published by {@link UserService} when a user's role or password may have changed or the user was deleted
+ */
+public record UserCredentialsChangedEvent(
+        String username
+) {
+}
@@ -1,28 +1,87 @@
 package ru.synergy.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import ru.synergy.model.User;
 import ru.synergy.repository.UserRepository;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
-public class UserDetailServiceImpl implements UserDetailsService {
+public class UserDetailServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private static final int CACHE_MAX_SIZE = 10_000;
+
     private final UserRepository userRepository;
 
+    private Cache<String, CachedPrincipal> cache = buildCache(Duration.ofMinutes(5));
+
+    @Value("${security.user-cache.ttl:PT5M}")
+    public void setCacheTtl(Duration ttl) {
+        this.cache = buildCache(ttl);
+    }
+
     @Override
     public @NotNull UserDetails loadUserByUsername(@NotNull String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь " + username + " не найден."));
+        CachedPrincipal principal = cache.getIfPresent(username);
+        if (principal == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Пользователь " + username + " не найден."));
+            principal = new CachedPrincipal(user.getUsername(), user.getPasswordHash(), user.getRole().name());
+            cache.put(username, principal);
+        }
 
         return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPasswordHash())
-                .authorities(user.getRole().name())
+                .username(principal.username())
+                .password(principal.passwordHash())
+                .authorities(principal.authority())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(entity -> {
+            entity.setPasswordHash(newPassword);
+            userRepository.save(entity);
+        });
+        evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
                 .build();
     }
+
+    /**
+     * Evicts only after commit, so a concurrent login cannot reload and cache the old role or password hash
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(UserCredentialsChangedEvent event) {
+        evict(event.username());
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    private static Cache<String, CachedPrincipal> buildCache(Duration ttl) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(CACHE_MAX_SIZE)
+                .build();
+    }
+
+    private record CachedPrincipal(String username, String passwordHash, String authority) {
+    }
 }
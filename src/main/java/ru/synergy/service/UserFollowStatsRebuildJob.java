@@ -0,0 +1,46 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.synergy.repository.UserFollowStatsRepository;
+import ru.synergy.repository.UserRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class UserFollowStatsRebuildJob {
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserFollowStatsService userFollowStatsService;
+    private final UserFollowStatsRepository userFollowStatsRepository;
+    private final UserRepository userRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissing() {
+        List<Long> userIds;
+        do {
+            userIds = userFollowStatsRepository.findUserIdsWithoutStats(PageRequest.of(0, BATCH_SIZE));
+            if (!userIds.isEmpty()) {
+                userFollowStatsService.rebuild(userIds);
+            }
+        } while (userIds.size() == BATCH_SIZE);
+    }
+
+    @Scheduled(cron = "${follows.rebuild-cron:0 45 3 * * *}")
+    public void rebuildAll() {
+        long afterId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (!userIds.isEmpty()) {
+                userFollowStatsService.rebuild(userIds);
+                afterId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == BATCH_SIZE);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.synergy.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.model.UserFollowStats;
+import ru.synergy.repository.UserFollowStatsRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class UserFollowStatsService {
+    private final UserFollowStatsRepository userFollowStatsRepository;
+
+    public Optional<UserFollowStats> getStats(Long userId) {
+        return userFollowStatsRepository.findById(userId);
+    }
+
+    public Map<Long, UserFollowStats> getStats(Collection<Long> userIds) {
+        Map<Long, UserFollowStats> stats = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return stats;
+        }
+        userFollowStatsRepository.findAllById(userIds).forEach(s -> stats.put(s.getUserId(), s));
+        return stats;
+    }
+
+    /**
+     * Most-followed accounts the user does not follow yet, read off the followers_count index
+     */
+    public List<UserSummaryDto> getMostFollowed(Long excludedUserId, int limit) {
+        return userFollowStatsRepository.findMostFollowedNotFollowedBy(
+                excludedUserId != null ? excludedUserId : -1L, PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public void recordFollow(Long followerId, Long followedId) {
+        adjust(followerId, followedId, 1);
+    }
+
+    @Transactional
+    public void recordUnfollow(Long followerId, Long followedId) {
+        adjust(followerId, followedId, -1);
+    }
+
+    /**
+     * Takes a user out of everyone else's counters; must run before their follow rows are deleted
+     */
+    @Transactional
+    public void detach(Long userId) {
+        userFollowStatsRepository.decrementFollowersOfFollowed(userId);
+        userFollowStatsRepository.decrementFollowingOfFollowers(userId);
+        userFollowStatsRepository.deleteById(userId);
+    }
+
+    @Transactional
+    public void rebuild(Collection<Long> userIds) {
+        userFollowStatsRepository.insertMissing(userIds);
+        userFollowStatsRepository.recompute(userIds);
+    }
+
+    private void adjust(Long followerId, Long followedId, long delta) {
+        if (userFollowStatsRepository.adjustFollowers(followedId, delta) == 0) {
+            rebuild(List.of(followedId));
+        }
+        if (userFollowStatsRepository.adjustFollowing(followerId, delta) == 0) {
+            rebuild(List.of(followerId));
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package ru.synergy.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.UserDirectoryPage;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.User;
+import ru.synergy.model.UserFollowId;
+import ru.synergy.model.UserFollowStats;
+import ru.synergy.repository.UserFollowRepository;
 import ru.synergy.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    private static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SUGGESTIONS = 20;
+
     private final UserRepository userRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final UserFollowStatsService userFollowStatsService;
+    private final FeedService feedService;
+    private final FollowRecommendationService followRecommendationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
@@ -22,8 +42,56 @@ public class UserService {
         return userRepository.findById(id);
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    public UserDirectoryPage getDirectoryPage(String prefix, String afterUsername, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String pattern = (prefix != null ? escapeLike(prefix.trim()) : "") + "%";
+        List<User> users = userRepository.findDirectoryPage(
+                pattern, afterUsername != null ? afterUsername : "", PageRequest.of(0, pageSize + 1));
+        if (users.size() <= pageSize) {
+            return new UserDirectoryPage(users, null);
+        }
+        List<User> page = users.subList(0, pageSize);
+        return new UserDirectoryPage(page, page.get(pageSize - 1).getUsername());
+    }
+
+    public List<UserSummaryDto> getSuggestedUsers(User user, int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return followRecommendationService.recommend(user != null ? user.getId() : null, cappedLimit);
+    }
+
+    public boolean isFollowing(User follower, User target) {
+        return userFollowRepository.existsById(new UserFollowId(follower.getId(), target.getId()));
+    }
+
+    public Set<Long> getFollowedIdsAmong(User follower, Collection<Long> userIds) {
+        if (follower == null || userIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(userFollowRepository.findFollowedIdsAmong(follower.getId(), userIds));
+    }
+
+    public long countFollowers(User user) {
+        return userFollowStatsService.getStats(user.getId()).map(UserFollowStats::getFollowersCount).orElse(0L);
+    }
+
+    public long countFollowing(User user) {
+        return userFollowStatsService.getStats(user.getId()).map(UserFollowStats::getFollowingCount).orElse(0L);
+    }
+
+    public Map<Long, UserFollowStats> getFollowStats(Collection<Long> userIds) {
+        return userFollowStatsService.getStats(userIds);
+    }
+
+    public CursorPage<UserSummaryDto> getFollowersPage(Long userId, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return toPage(userFollowRepository.findFollowersPage(
+                userId, afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    public CursorPage<UserSummaryDto> getFollowingPage(Long userId, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return toPage(userFollowRepository.findFollowingPage(
+                userId, afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     @Transactional
@@ -31,25 +99,48 @@ public class UserService {
         if (follower.getId().equals(target.getId())) {
             return;
         }
-        if (!follower.getFollowing().contains(target)) {
-            follower.getFollowing().add(target);
-            userRepository.save(follower);
+        if (userFollowRepository.insertIfAbsent(follower.getId(), target.getId()) > 0) {
+            userFollowStatsService.recordFollow(follower.getId(), target.getId());
+            feedService.onFollow(follower.getId(), target.getId());
+            followRecommendationService.onFollow(follower.getId(), target.getId());
         }
     }
 
     @Transactional
     public void unfollow(User follower, User target) {
-        follower.getFollowing().remove(target);
-        userRepository.save(follower);
+        if (userFollowRepository.deleteFollow(follower.getId(), target.getId()) > 0) {
+            userFollowStatsService.recordUnfollow(follower.getId(), target.getId());
+            feedService.onUnfollow(follower.getId(), target.getId());
+            followRecommendationService.onUnfollow(follower.getId(), target.getId());
+        }
     }
 
     @Transactional
     public void deleteById(Long id) {
+        userRepository.findById(id).ifPresent(user ->
+                eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getUsername())));
+        userFollowStatsService.detach(id);
+        feedService.deleteAllOfUser(id);
+        userFollowRepository.deleteAllOfUser(id);
         userRepository.deleteById(id);
     }
 
     @Transactional
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCredentialsChangedEvent(user.getUsername()));
+        return saved;
+    }
+
+    private CursorPage<UserSummaryDto> toPage(List<UserSummaryDto> users, int pageSize) {
+        if (users.size() <= pageSize) {
+            return new CursorPage<>(users, null);
+        }
+        List<UserSummaryDto> page = users.subList(0, pageSize);
+        return new CursorPage<>(page, page.get(pageSize - 1).id());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
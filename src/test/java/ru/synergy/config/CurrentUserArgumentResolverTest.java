@@ -0,0 +1,59 @@
+package ru.synergy.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.synergy.model.User;
+import ru.synergy.service.UserService;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserArgumentResolverTest {
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private CurrentUserArgumentResolver resolver;
+
+    @Test
+    void resolveArgument_shouldLoadUserOncePerRequest() {
+        User user = new User();
+        user.setUsername("testUser");
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("testUser", "password"));
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+
+        assertThat(resolver.resolveArgument(null, null, webRequest, null)).isSameAs(user);
+        assertThat(resolver.resolveArgument(null, null, webRequest, null)).isSameAs(user);
+        verify(userService, times(1)).findByUsername("testUser");
+    }
+
+    @Test
+    void resolveArgument_withoutPrincipal_shouldReturnNull() {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        assertThat(resolver.resolveArgument(null, null, webRequest, null)).isNull();
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void resolveArgument_whenUserMissing_shouldReturnNull() {
+        when(userService.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("ghost", "password"));
+
+        assertThat(resolver.resolveArgument(null, null, new ServletWebRequest(request), null)).isNull();
+    }
+}
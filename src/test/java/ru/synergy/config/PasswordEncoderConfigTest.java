@@ -0,0 +1,29 @@
+package ru.synergy.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderConfigTest {
+    private final PasswordEncoder encoder = new PasswordEncoderConfig().getPasswordEncoder();
+
+    @Test
+    void encode_shouldUseBcryptWithPrefix() {
+        String hash = encoder.encode("password1");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("password1", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void matches_shouldAcceptLegacyHashesAndRequestUpgrade() {
+        String legacyHash = new BCryptPasswordEncoder().encode("password1");
+
+        assertThat(encoder.matches("password1", legacyHash)).isTrue();
+        assertThat(encoder.matches("wrong", legacyHash)).isFalse();
+        assertThat(encoder.upgradeEncoding(legacyHash)).isTrue();
+    }
+}
@@ -10,11 +10,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.synergy.dto.UserDirectoryPage;
 import ru.synergy.model.Role;
 import ru.synergy.model.User;
+import ru.synergy.service.AudioDiskCache;
 import ru.synergy.service.UserService;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,6 +32,9 @@ class AdminControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private AudioDiskCache audioDiskCache;
+
     @Test
     @WithMockUser(username = "administrator", roles = "ADMIN")
     void showUsers_ShouldReturnUsersPageWithCurrentUserAndAllUsers() throws Exception {
@@ -43,7 +49,8 @@ class AdminControllerTest {
         user1.setRole(Role.ROLE_USER);
 
         when(userService.findByUsername("administrator")).thenReturn(Optional.of(currentUser));
-        when(userService.findAll()).thenReturn(Arrays.asList(currentUser, user1));
+        when(userService.getDirectoryPage(null, null, 50))
+                .thenReturn(new UserDirectoryPage(Arrays.asList(currentUser, user1), null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/users"))
                 .andExpect(MockMvcResultMatchers.status().isOk())
@@ -54,7 +61,32 @@ class AdminControllerTest {
                 .andExpect(MockMvcResultMatchers.model().attribute("users", Arrays.asList(currentUser, user1)));
 
         verify(userService).findByUsername("administrator");
-        verify(userService).findAll();
+        verify(userService).getDirectoryPage(null, null, 50);
+    }
+
+    @Test
+    @WithMockUser(username = "administrator", roles = "ADMIN")
+    void showUsers_WithSearchAndCursor_ShouldPassThemToDirectory() throws Exception {
+        User currentUser = new User();
+        currentUser.setId(1L);
+        currentUser.setUsername("administrator");
+        currentUser.setRole(Role.ROLE_ADMIN);
+
+        when(userService.findByUsername("administrator")).thenReturn(Optional.of(currentUser));
+        when(userService.getDirectoryPage("adm", "admin0001", 20))
+                .thenReturn(new UserDirectoryPage(Arrays.asList(currentUser), "administrator"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users")
+                        .param("q", "adm")
+                        .param("after", "admin0001")
+                        .param("size", "20"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.model().attribute("searchQuery", "adm"))
+                .andExpect(MockMvcResultMatchers.model().attribute("pageCursor", "admin0001"))
+                .andExpect(MockMvcResultMatchers.model().attribute("nextCursor", "administrator"))
+                .andExpect(MockMvcResultMatchers.model().attribute("pageSize", 20))
+                .andExpect(MockMvcResultMatchers.content().string(org.hamcrest.Matchers.containsString(
+                        "/users?q=adm&amp;after=administrator&amp;size=20")));
     }
 
     @Test
@@ -74,6 +106,37 @@ class AdminControllerTest {
     }
 
 
+    @Test
+    @WithMockUser(username = "administrator", roles = "ADMIN")
+    void streamCacheStats_ShouldReturnCacheCountersForAdmin() throws Exception {
+        User currentUser = new User();
+        currentUser.setUsername("administrator");
+        currentUser.setRole(Role.ROLE_ADMIN);
+
+        when(userService.findByUsername("administrator")).thenReturn(Optional.of(currentUser));
+        when(audioDiskCache.stats()).thenReturn(Map.of("hits", 3L, "misses", 1L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/stream-cache"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hits").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.misses").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void streamCacheStats_ShouldBeForbiddenForRegularUser() throws Exception {
+        User currentUser = new User();
+        currentUser.setUsername("testUser");
+        currentUser.setRole(Role.ROLE_USER);
+
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(currentUser));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/admin/stream-cache"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        verify(audioDiskCache, never()).stats();
+    }
+
     @Test
     @WithMockUser(username = "administrator", roles = "ADMIN")
     void deleteUser_ShouldDeleteUserAndRedirectToUsers() throws Exception {
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,6 +54,24 @@ public class AuthControllerTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void register_whenHashingIsOverloaded_shouldShowError() throws Exception {
+        when(userRepository.findByUsername("validuser123")).thenReturn(Optional.empty());
+        doThrow(new AuthenticationServiceException("Сервис временно перегружен, попробуйте позже"))
+                .when(passwordEncoder)
+                .encode("securepass123");
+
+        mockMvc.perform(post("/register")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("username", "validuser123")
+                        .param("password", "securepass123"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("register"))
+                .andExpect(model().attribute("error", "Сервис временно перегружен, попробуйте позже"));
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void register_usernameTooShort() throws Exception {
         mockMvc.perform(post("/register")
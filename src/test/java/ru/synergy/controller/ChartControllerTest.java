@@ -0,0 +1,64 @@
+package ru.synergy.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.ChartEntryDto;
+import ru.synergy.model.ChartCategory;
+import ru.synergy.model.ChartWindow;
+import ru.synergy.service.TopChartService;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChartControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TopChartService topChartService;
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void chart_ShouldDefaultToDailyTrackChart() throws Exception {
+        when(topChartService.getChart(ChartWindow.DAY, ChartCategory.TRACKS, 20))
+                .thenReturn(List.of(new ChartEntryDto(1L, "Hit", "Band", 42)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/charts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].trackId").value(1))
+                .andExpect(jsonPath("$[0].plays").value(42));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void chart_ShouldCapSizeAndAcceptWindowAndCategory() throws Exception {
+        when(topChartService.getChart(ChartWindow.HOUR, ChartCategory.GENRES, 100))
+                .thenReturn(List.of(new ChartEntryDto(null, "rock", null, 7)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/charts")
+                        .param("window", "HOUR")
+                        .param("category", "GENRES")
+                        .param("size", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("rock"));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void chart_WithUnknownWindow_ShouldReturn400() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/charts").param("window", "YEAR"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(topChartService);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.synergy.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.model.FeedEvent;
+import ru.synergy.model.FeedEventType;
+import ru.synergy.model.User;
+import ru.synergy.service.FeedService;
+import ru.synergy.service.UserService;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FeedControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FeedService feedService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    @WithMockUser(username = "reader")
+    void feed_ShouldReturnPageBeforeCursor() throws Exception {
+        User reader = new User();
+        reader.setId(1L);
+        reader.setUsername("reader");
+
+        FeedEvent event = new FeedEvent();
+        event.setId(41L);
+        event.setType(FeedEventType.PLAYLIST_CREATED);
+        event.setActorName("artist");
+        event.setPlaylistName("Mix");
+
+        when(userService.findByUsername("reader")).thenReturn(Optional.of(reader));
+        when(feedService.getFeed(reader, 42L, 50)).thenReturn(new CursorPage<>(List.of(event), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/feed").param("before", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].type").value("PLAYLIST_CREATED"))
+                .andExpect(jsonPath("$.items[0].actorName").value("artist"))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "ghost")
+    void feed_WhenUserMissing_ShouldReturn401() throws Exception {
+        when(userService.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/feed"))
+                .andExpect(status().isUnauthorized());
+
+        verify(feedService, never()).getFeed(any(), any(), anyInt());
+    }
+}
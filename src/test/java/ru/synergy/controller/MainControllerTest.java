@@ -1,5 +1,6 @@
 package ru.synergy.controller;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,16 +9,28 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.ChartEntryDto;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.PlaylistSummaryDto;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.*;
-import ru.synergy.repository.UserSubscriptionRepository;
+import ru.synergy.service.FeedService;
 import ru.synergy.service.PlaylistService;
+import ru.synergy.service.StreamTokenService;
+import ru.synergy.service.SubscriptionStatusService;
+import ru.synergy.service.TopChartService;
+import ru.synergy.service.TrackRecommendationService;
 import ru.synergy.service.TrackReviewService;
 import ru.synergy.service.TrackService;
 import ru.synergy.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,7 +54,25 @@ public class MainControllerTest {
     private TrackReviewService trackReviewService;
 
     @MockitoBean
-    private UserSubscriptionRepository subRepo;
+    private SubscriptionStatusService subscriptionStatusService;
+
+    @MockitoBean
+    private FeedService feedService;
+
+    @MockitoBean
+    private StreamTokenService streamTokenService;
+
+    @MockitoBean
+    private TrackRecommendationService trackRecommendationService;
+
+    @MockitoBean
+    private TopChartService topChartService;
+
+    @BeforeEach
+    void setUp() {
+        when(feedService.getFeed(any(), any(), anyInt())).thenReturn(new CursorPage<>(List.of(), null));
+        when(subscriptionStatusService.getStatus(any())).thenReturn(SubscriptionStatus.NONE);
+    }
 
     @Test
     @WithMockUser(username = "testUser")
@@ -59,16 +90,15 @@ public class MainControllerTest {
         track.setId(200L);
         track.setTitle("Test Track");
 
-        UserSubscription subscription = new UserSubscription();
-        subscription.setEndDate(LocalDateTime.now().plusDays(30));
+        SubscriptionStatus subscription = new SubscriptionStatus(true, LocalDateTime.now().plusDays(30));
 
         when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
-        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(subscription));
-        when(trackService.getAllTracks()).thenReturn(Collections.singletonList(track));
+        when(subscriptionStatusService.getStatus(user)).thenReturn(subscription);
+        when(trackService.getTracksPage(null, 50)).thenReturn(new CursorPage<>(Collections.singletonList(track), null));
         when(playlistService.getUserPlaylists(user)).thenReturn(Collections.singletonList(playlist));
-        when(userService.findAll()).thenReturn(Collections.singletonList(user));
-        when(trackReviewService.getReviews(200L)).thenReturn(Collections.emptyList());
-        when(trackReviewService.getAverageRating(200L)).thenReturn(0.0);
+        when(userService.getSuggestedUsers(user, MainController.SUGGESTED_USERS_LIMIT)).thenReturn(List.of(new UserSummaryDto(1L, "testUser")));
+        when(trackReviewService.getReviewsByTrackIds(Set.of(200L))).thenReturn(Map.of(200L, List.of()));
+        when(trackReviewService.getAverageRatings(Set.of(200L))).thenReturn(Map.of(200L, 0.0));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/"))
                 .andExpect(status().isOk())
@@ -76,20 +106,27 @@ public class MainControllerTest {
                 .andExpect(model().attributeExists("currentUser"))
                 .andExpect(model().attribute("hasActiveSubscription", true))
                 .andExpect(model().attribute("daysLeft", 29L))
+                .andExpect(model().attributeExists("streamUrls"))
+                .andExpect(model().attributeExists("recommendedTracks"))
                 .andExpect(model().attribute("tracks", Collections.singletonList(track)))
                 .andExpect(model().attribute("playlists", Collections.singletonList(playlist)))
-                .andExpect(model().attribute("users", Collections.singletonList(user)))
-                .andExpect(model().attribute("followingIds", Collections.emptyList()))
+                .andExpect(model().attribute("users", List.of(new UserSummaryDto(1L, "testUser"))))
+                .andExpect(model().attribute("followingIds", Set.of()))
                 .andExpect(model().attribute("currentUserId", 1L))
-                .andExpect(model().attributeExists("followedPlaylists"))
+                .andExpect(model().attributeExists("feed"))
                 .andExpect(model().attributeExists("reviewsByTrack"))
                 .andExpect(model().attributeExists("avgRatings"));
 
         verify(userService).findByUsername("testUser");
-        verify(subRepo).findByUserAndIsActive(user, true);
-        verify(trackService).getAllTracks();
+        verify(subscriptionStatusService).getStatus(user);
+        verify(trackService).getTracksPage(null, 50);
+        verify(trackService, never()).getAllTracks();
         verify(playlistService).getUserPlaylists(user);
-        verify(userService).findAll();
+        verify(userService).getSuggestedUsers(user, MainController.SUGGESTED_USERS_LIMIT);
+        verify(trackReviewService).getReviewsByTrackIds(Set.of(200L));
+        verify(trackReviewService).getAverageRatings(Set.of(200L));
+        verify(trackReviewService, never()).getReviews(any());
+        verify(trackReviewService, never()).getAverageRating(any());
     }
 
     @Test
@@ -105,7 +142,7 @@ public class MainControllerTest {
         track.setTitle("Search Result");
 
         when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
-        when(trackService.searchTracks("query")).thenReturn(Collections.singletonList(track));
+        when(trackService.searchTracks("query", 0, 50)).thenReturn(Collections.singletonList(track));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/")
                         .param("search", "query"))
@@ -114,7 +151,87 @@ public class MainControllerTest {
                 .andExpect(model().attribute("searchQuery", "query"))
                 .andExpect(model().attribute("tracks", Collections.singletonList(track)));
 
-        verify(trackService).searchTracks("query");
+        verify(trackService).searchTracks("query", 0, 50);
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void showMainPage_WithOversizedSearchPage_ShouldClampSizeForQueryAndPager() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        user.setRole(Role.ROLE_USER);
+
+        Track track = new Track();
+        track.setId(200L);
+        track.setTitle("Search Result");
+        List<Track> fullPage = Collections.nCopies(MainController.MAX_PAGE_SIZE, track);
+
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(trackService.searchTracks("query", 0, MainController.MAX_PAGE_SIZE)).thenReturn(fullPage);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/")
+                        .param("search", "query")
+                        .param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("hasMoreResults", true))
+                .andExpect(model().attribute("pageSize", MainController.MAX_PAGE_SIZE))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("page=1&amp;size=200")));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void showMainPage_WithCursor_ShouldReturnNextPage() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        user.setRole(Role.ROLE_USER);
+
+        Track track = new Track();
+        track.setId(260L);
+        track.setTitle("Next Page Track");
+
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(trackService.getTracksPage(250L, 10))
+                .thenReturn(new CursorPage<>(Collections.singletonList(track), 260L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/")
+                        .param("after", "250")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("main"))
+                .andExpect(model().attribute("tracks", Collections.singletonList(track)))
+                .andExpect(model().attribute("pageCursor", 250L))
+                .andExpect(model().attribute("nextCursor", 260L))
+                .andExpect(model().attribute("pageSize", 10))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("/?after=260&amp;size=10")));
+
+        verify(trackService).getTracksPage(250L, 10);
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void showMainPage_WithChartWindow_ShouldShowChartsFromMemory() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        user.setRole(Role.ROLE_USER);
+        List<ChartEntryDto> topTracks = List.of(new ChartEntryDto(200L, "Hit", "Artist", 42));
+
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(trackService.getTracksPage(null, 50)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
+        when(topChartService.getChart(ChartWindow.HOUR, ChartCategory.TRACKS, MainController.CHART_LIMIT))
+                .thenReturn(topTracks);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/").param("chart", "HOUR"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("chartWindow", ChartWindow.HOUR))
+                .andExpect(model().attribute("topTracks", topTracks))
+                .andExpect(model().attribute("topArtists", List.of()))
+                .andExpect(model().attribute("topGenres", List.of()));
+
+        verify(topChartService).getChart(ChartWindow.HOUR, ChartCategory.ARTISTS, MainController.CHART_LIMIT);
+        verify(topChartService).getChart(ChartWindow.HOUR, ChartCategory.GENRES, MainController.CHART_LIMIT);
     }
 
     @Test
@@ -123,13 +240,14 @@ public class MainControllerTest {
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl("/login"));
 
-        verifyNoInteractions(userService, subRepo, trackService);
+        verifyNoInteractions(userService, subscriptionStatusService, trackService);
     }
 
     @Test
     @WithMockUser(username = "unknown")
     void showMainPage_WhenUserNotFound_ShouldShowError() throws Exception {
         when(userService.findByUsername("unknown")).thenReturn(Optional.empty());
+        when(trackService.getTracksPage(null, 50)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/"))
                 .andExpect(status().isOk())
@@ -157,15 +275,14 @@ public class MainControllerTest {
         track.setId(200L);
         track.setTitle("Playlist Track");
 
-        playlist.setTracks(Collections.singletonList(track));
+        when(playlistService.getTracksPage(playlist, null, 50)).thenReturn(new CursorPage<>(List.of(entryOf(track)), null));
 
         when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
         when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
-        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.empty());
         when(playlistService.getUserPlaylists(user)).thenReturn(Collections.singletonList(playlist));
-        when(userService.findAll()).thenReturn(Collections.singletonList(user));
-        when(trackReviewService.getReviews(200L)).thenReturn(Collections.emptyList());
-        when(trackReviewService.getAverageRating(200L)).thenReturn(4.5);
+        when(userService.getSuggestedUsers(user, MainController.SUGGESTED_USERS_LIMIT)).thenReturn(List.of(new UserSummaryDto(1L, "testUser")));
+        when(trackReviewService.getReviewsByTrackIds(Set.of(200L))).thenReturn(Map.of(200L, List.of()));
+        when(trackReviewService.getAverageRatings(Set.of(200L))).thenReturn(Map.of(200L, 4.5));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/playlist/100"))
                 .andExpect(status().isOk())
@@ -179,7 +296,7 @@ public class MainControllerTest {
                 .andExpect(model().attributeExists("users"))
                 .andExpect(model().attributeExists("followingIds"))
                 .andExpect(model().attributeExists("currentUserId"))
-                .andExpect(model().attributeExists("followedPlaylists"));
+                .andExpect(model().attributeExists("feed"));
 
         verify(playlistService).getPlaylistById(100L);
     }
@@ -189,7 +306,7 @@ public class MainControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.get("/playlist/100"))
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl("/login"))
-                .andExpect(result -> verifyNoInteractions(userService, playlistService, subRepo));
+                .andExpect(result -> verifyNoInteractions(userService, playlistService, subscriptionStatusService));
     }
 
     @Test
@@ -241,18 +358,17 @@ public class MainControllerTest {
         Track track = new Track();
         track.setId(200L);
 
-        playlist.setTracks(Collections.singletonList(track));
+        when(playlistService.getTracksPage(playlist, null, 50)).thenReturn(new CursorPage<>(List.of(entryOf(track)), null));
 
-        UserSubscription subscription = new UserSubscription();
-        subscription.setEndDate(LocalDateTime.now().plusDays(15));
+        SubscriptionStatus subscription = new SubscriptionStatus(true, LocalDateTime.now().plusDays(15));
 
         when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
-        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(subscription));
+        when(subscriptionStatusService.getStatus(user)).thenReturn(subscription);
         when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
         when(playlistService.getUserPlaylists(user)).thenReturn(Collections.singletonList(playlist));
-        when(userService.findAll()).thenReturn(Collections.singletonList(user));
-        when(trackReviewService.getReviews(200L)).thenReturn(Collections.emptyList());
-        when(trackReviewService.getAverageRating(200L)).thenReturn(3.0);
+        when(userService.getSuggestedUsers(user, MainController.SUGGESTED_USERS_LIMIT)).thenReturn(List.of(new UserSummaryDto(1L, "testUser")));
+        when(trackReviewService.getReviewsByTrackIds(Set.of(200L))).thenReturn(Map.of(200L, List.of()));
+        when(trackReviewService.getAverageRatings(Set.of(200L))).thenReturn(Map.of(200L, 3.0));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/playlist/100"))
                 .andExpect(status().isOk())
@@ -260,12 +376,12 @@ public class MainControllerTest {
                 .andExpect(model().attribute("hasActiveSubscription", true))
                 .andExpect(model().attribute("daysLeft", 14L));
 
-        verify(subRepo).findByUserAndIsActive(user, true);
+        verify(subscriptionStatusService).getStatus(user);
     }
 
     @Test
     @WithMockUser(username = "testUser")
-    void showPlaylistTracks_ShouldPopulateFollowingIdsAndFollowedPlaylists() throws Exception {
+    void showPlaylistTracks_ShouldPopulateFollowingIdsAndFeed() throws Exception {
         User user = new User();
         user.setId(1L);
         user.setUsername("testUser");
@@ -275,8 +391,6 @@ public class MainControllerTest {
         followingUser.setId(2L);
         followingUser.setUsername("followed");
 
-        user.setFollowing(Collections.singletonList(followingUser));
-
         Playlist playlist = new Playlist();
         playlist.setId(100L);
         playlist.setName("Shared Playlist");
@@ -285,21 +399,74 @@ public class MainControllerTest {
         Track track = new Track();
         track.setId(200L);
 
-        playlist.setTracks(Collections.singletonList(track));
+        when(playlistService.getTracksPage(playlist, null, 50)).thenReturn(new CursorPage<>(List.of(entryOf(track)), null));
 
         when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
         when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
-        when(playlistService.getPlaylistsOfUsers(user.getFollowing()))
-                .thenReturn(Collections.singletonList(playlist));
-
+        when(userService.getSuggestedUsers(user, MainController.SUGGESTED_USERS_LIMIT))
+                .thenReturn(List.of(new UserSummaryDto(1L, "testUser"), new UserSummaryDto(2L, "followed")));
+        when(userService.getFollowedIdsAmong(user, List.of(1L, 2L))).thenReturn(Set.of(2L));
+
+        FeedEvent event = new FeedEvent();
+        event.setId(7L);
+        event.setType(FeedEventType.PLAYLIST_CREATED);
+        event.setActorId(2L);
+        event.setActorName("followed");
+        event.setPlaylistId(100L);
+        event.setPlaylistName("Shared Playlist");
+        when(feedService.getFeed(user, null, FeedService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(event), 7L));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/playlist/100"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("main"))
-                .andExpect(model().attribute("followingIds", Collections.singletonList(2L)))
-                .andExpect(model().attribute("followedPlaylists", Collections.singletonList(playlist)));
+                .andExpect(model().attribute("followingIds", Set.of(2L)))
+                .andExpect(model().attribute("feed", List.of(event)))
+                .andExpect(model().attribute("feedNextCursor", 7L));
+
+        verify(userService).getFollowedIdsAmong(user, List.of(1L, 2L));
+        verify(feedService).getFeed(user, null, FeedService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void showPlaylistTracks_ShouldPageEntriesAndShowSummary() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
 
+        Playlist playlist = new Playlist();
+        playlist.setId(100L);
+        playlist.setName("Big Playlist");
+        playlist.setUser(user);
+
+        Track track = new Track();
+        track.setId(300L);
+        PlaylistSummaryDto summary = new PlaylistSummaryDto(100L, "Big Playlist", 5000L, 3725L);
+
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(playlistService.getTracksPage(playlist, 40L, 20)).thenReturn(new CursorPage<>(List.of(entryOf(track)), 41L));
+        when(playlistService.getSummary(playlist)).thenReturn(summary);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/playlist/100")
+                        .param("after", "40")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("tracks", List.of(track)))
+                .andExpect(model().attribute("nextCursor", 41L))
+                .andExpect(model().attribute("pageCursor", 40L))
+                .andExpect(model().attribute("pageSize", 20))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("/playlist/100?after=41&amp;size=20")))
+                .andExpect(model().attribute("playlistSummary", summary));
+
+        verify(trackReviewService).getAverageRatings(Set.of(300L));
+    }
 
-        verify(playlistService).getPlaylistsOfUsers(user.getFollowing());
+    private PlaylistTrack entryOf(Track track) {
+        PlaylistTrack entry = new PlaylistTrack();
+        entry.setId(track.getId() + 1000);
+        entry.setTrack(track);
+        return entry;
     }
 }
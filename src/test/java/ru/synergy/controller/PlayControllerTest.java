@@ -0,0 +1,91 @@
+package ru.synergy.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.PlayEventRequest;
+import ru.synergy.model.PlayEventType;
+import ru.synergy.model.User;
+import ru.synergy.service.PlayEventService;
+import ru.synergy.service.UserService;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PlayControllerTest {
+    private static final String BODY = "{\"trackId\":5,\"type\":\"START\",\"positionSeconds\":0}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PlayEventService playEventService;
+
+    @MockitoBean
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void record_ShouldAcceptEvent() throws Exception {
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/plays").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isAccepted());
+
+        verify(playEventService).record(user, new PlayEventRequest(5L, PlayEventType.START, 0));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void record_WhenInvalid_ShouldReturn400() throws Exception {
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        doThrow(new IllegalArgumentException("Не указан трек")).when(playEventService).record(any(), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/plays").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Не указан трек"));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void record_WhenOverloaded_ShouldReturn503() throws Exception {
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        doThrow(new IllegalStateException("перегружен")).when(playEventService).record(any(), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/plays").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @WithMockUser(username = "ghost")
+    void record_WhenUserMissing_ShouldReturn401() throws Exception {
+        when(userService.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/plays").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(playEventService);
+    }
+}
@@ -10,16 +10,21 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.PlaylistBulkResultDto;
+import ru.synergy.dto.PlaylistEntryDto;
+import ru.synergy.dto.PlaylistSummaryDto;
 import ru.synergy.model.Playlist;
+import ru.synergy.model.PlaylistTrack;
 import ru.synergy.model.Track;
 import ru.synergy.model.User;
 import ru.synergy.repository.UserRepository;
 import ru.synergy.service.PlaylistService;
 import ru.synergy.service.TrackService;
 
+import java.util.List;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -62,7 +67,7 @@ class PlaylistControllerTest {
         user.setUsername("testUser");
 
         when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
-        doNothing().when(playlistService).save(any(Playlist.class));
+        doNothing().when(playlistService).create(any(Playlist.class));
 
         MockHttpServletRequestBuilder request = post("/playlist/create")
                 .param("name", "My Playlist")
@@ -72,7 +77,7 @@ class PlaylistControllerTest {
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl("/"));
 
-        verify(playlistService).save(argThat(p ->
+        verify(playlistService).create(argThat(p ->
                 "My Playlist".equals(p.getName()) &&
                         user.equals(p.getUser())
         ));
@@ -117,8 +122,7 @@ class PlaylistControllerTest {
                 .andExpect(redirectedUrl("/"))
                 .andExpect(flash().attribute("success", "Трек добавлен в плейлист!"));
 
-        verify(playlistService).save(playlist);
-        assertTrue(playlist.getTracks().contains(track));
+        verify(playlistService).addTrack(playlist, track);
     }
 
     @Test
@@ -165,4 +169,163 @@ class PlaylistControllerTest {
 
         verify(playlistService).deletePlaylist(100L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void insertTrack_shouldInsertAfterGivenEntry() throws Exception {
+        User user = owner();
+        Playlist playlist = playlistOf(user);
+        Track track = new Track();
+        track.setId(200L);
+        PlaylistTrack entry = new PlaylistTrack();
+        entry.setId(7L);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(trackService.getTrackById(200L)).thenReturn(Optional.of(track));
+        when(playlistService.insertTrack(playlist, track, 5L)).thenReturn(entry);
+
+        mockMvc.perform(post("/playlist/100/entries")
+                        .param("trackId", "200")
+                        .param("after", "5")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entryId").value(7));
+    }
+
+    @Test
+    void moveEntry_shouldReturnNoContent() throws Exception {
+        User user = owner();
+        Playlist playlist = playlistOf(user);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+
+        mockMvc.perform(post("/playlist/100/entries/7/move")
+                        .param("after", "3")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isNoContent());
+
+        verify(playlistService).moveEntry(playlist, 7L, 3L);
+    }
+
+    @Test
+    void moveEntry_whenNotOwner_shouldReturnForbidden() throws Exception {
+        User user = owner();
+        User stranger = new User();
+        stranger.setId(2L);
+        Playlist playlist = playlistOf(stranger);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+
+        mockMvc.perform(post("/playlist/100/entries/7/move")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isForbidden());
+
+        verify(playlistService, never()).moveEntry(any(), any(), any());
+    }
+
+    @Test
+    void removeEntry_whenEntryMissing_shouldReturnNotFound() throws Exception {
+        User user = owner();
+        Playlist playlist = playlistOf(user);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        doThrow(new IllegalArgumentException("Трек в плейлисте не найден"))
+                .when(playlistService).removeEntry(playlist, 9L);
+
+        mockMvc.perform(delete("/playlist/100/entries/9")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Трек в плейлисте не найден"));
+    }
+
+    @Test
+    void getTracks_shouldReturnEntryPage() throws Exception {
+        Playlist playlist = playlistOf(owner());
+        PlaylistEntryDto entry = new PlaylistEntryDto(11L, 200L, "Song", "Artist", "rock", 180, 4.5);
+
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(playlistService.getEntriesPage(playlist, 10L, 50)).thenReturn(new CursorPage<>(List.of(entry), 11L));
+
+        mockMvc.perform(get("/playlist/100/tracks").param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Song"))
+                .andExpect(jsonPath("$.items[0].averageRating").value(4.5))
+                .andExpect(jsonPath("$.nextCursor").value(11));
+    }
+
+    @Test
+    void getSummary_shouldReturnCounters() throws Exception {
+        Playlist playlist = playlistOf(owner());
+
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(playlistService.getSummary(playlist)).thenReturn(new PlaylistSummaryDto(100L, "Mix", 5000L, 3725L));
+
+        mockMvc.perform(get("/playlist/100/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trackCount").value(5000))
+                .andExpect(jsonPath("$.totalDurationSeconds").value(3725));
+    }
+
+    @Test
+    void getSummary_whenPlaylistMissing_shouldReturnNotFound() throws Exception {
+        when(playlistService.getPlaylistById(404L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/playlist/404/summary"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkEdit_shouldApplyChangesAndReturnResult() throws Exception {
+        User user = owner();
+        Playlist playlist = playlistOf(user);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(playlistService.bulkEdit(playlist, List.of(1L, 2L, 3L), List.of(9L)))
+                .thenReturn(new PlaylistBulkResultDto(2, 1, 0, List.of(3L)));
+
+        mockMvc.perform(post("/playlist/100/tracks/bulk")
+                        .contentType("application/json")
+                        .content("{\"add\":[1,2,3],\"remove\":[9]}")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.removed").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(3));
+    }
+
+    @Test
+    void bulkEdit_whenLimitExceeded_shouldReturnBadRequest() throws Exception {
+        User user = owner();
+        Playlist playlist = playlistOf(user);
+
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(playlistService.getPlaylistById(100L)).thenReturn(Optional.of(playlist));
+        when(playlistService.bulkEdit(any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Слишком много треков за один запрос (максимум 1000)"));
+
+        mockMvc.perform(post("/playlist/100/tracks/bulk")
+                        .contentType("application/json")
+                        .content("{\"add\":[1]}")
+                        .principal(() -> "testUser"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Слишком много треков за один запрос (максимум 1000)"));
+    }
+
+    private User owner() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        return user;
+    }
+
+    private Playlist playlistOf(User user) {
+        Playlist playlist = new Playlist();
+        playlist.setId(100L);
+        playlist.setUser(user);
+        return playlist;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.synergy.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.RecommendedTrackDto;
+import ru.synergy.model.User;
+import ru.synergy.service.TrackRecommendationService;
+import ru.synergy.service.UserService;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecommendationControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TrackRecommendationService trackRecommendationService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void similar_ShouldReturnNeighborsWithCappedSize() throws Exception {
+        when(trackRecommendationService.similarTracks(1L, 100))
+                .thenReturn(List.of(new RecommendedTrackDto(2L, "Song", "Artist", 0.75)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/tracks/1/similar").param("size", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].score").value(0.75));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void forYou_ShouldReturnRecommendationsForCurrentUser() throws Exception {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(trackRecommendationService.recommendFor(user, 20))
+                .thenReturn(List.of(new RecommendedTrackDto(3L, "Other", "Artist", 1.5)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/recommendations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Other"));
+    }
+
+    @Test
+    @WithMockUser(username = "ghost")
+    void forYou_WhenUserMissing_ShouldReturn401() throws Exception {
+        when(userService.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/recommendations"))
+                .andExpect(status().isUnauthorized());
+
+        verify(trackRecommendationService, never()).recommendFor(any(), anyInt());
+    }
+}
@@ -0,0 +1,191 @@
+package ru.synergy.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.AudioObjectInfo;
+import ru.synergy.dto.StreamTokenDto;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.service.AudioStreamService;
+import ru.synergy.service.StreamTokenService;
+import ru.synergy.service.TrackService;
+import ru.synergy.service.UserService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StreamControllerTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final AudioObjectInfo OBJECT = new AudioObjectInfo("song.mp3", CONTENT.length, "abc", "audio/mpeg");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TrackService trackService;
+
+    @MockitoBean
+    private AudioStreamService audioStreamService;
+
+    @MockitoBean
+    private StreamTokenService streamTokenService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Track track = new Track();
+        track.setId(1L);
+        track.setObjectName("song.mp3");
+
+        when(trackService.getTrackById(1L)).thenReturn(Optional.of(track));
+        when(streamTokenService.verify(anyLong(), eq("valid"))).thenReturn(true);
+        when(audioStreamService.objectNameOf(track)).thenReturn("song.mp3");
+        when(audioStreamService.describe("song.mp3")).thenReturn(OBJECT);
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(Arrays.copyOfRange(CONTENT, (int) offset, (int) (offset + length)));
+            return null;
+        }).when(audioStreamService).copyRange(eq(OBJECT), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WithoutRange_ShouldReturnWholeObject() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(CONTENT));
+
+        verify(audioStreamService).copyRange(eq(OBJECT), eq(0L), eq(10L), any(OutputStream.class));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WithSingleRange_ShouldReturnPartialContent() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid")
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+
+        verify(audioStreamService).copyRange(eq(OBJECT), eq(2L), eq(4L), any(OutputStream.class));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WithMultipleRanges_ShouldReturnMultipartByteRanges() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid")
+                        .header(HttpHeaders.RANGE, "bytes=0-1,8-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                        org.hamcrest.Matchers.startsWith("multipart/byteranges; boundary=")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Content-Range: bytes 0-1/10")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Content-Range: bytes 8-9/10")));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WithUnsatisfiableRange_ShouldReturn416() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid")
+                        .header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+
+        verify(audioStreamService, never()).copyRange(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WithStaleIfRange_ShouldReturnWholeObject() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid")
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void stream_WhenTrackNotFound_ShouldReturn404() throws Exception {
+        when(trackService.getTrackById(2L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/2").param("token", "valid"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void stream_WithoutSessionButValidToken_ShouldServeObject() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "valid"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void stream_WithInvalidToken_ShouldReturn403WithoutLookups() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1").param("token", "forged"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(trackService, audioStreamService);
+    }
+
+    @Test
+    void stream_WithoutToken_ShouldReturn403() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/stream/1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void issueToken_WithActiveSubscription_ShouldReturnSignedUrl() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("testUser");
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(streamTokenService.issue(user, 1L)).thenReturn(Optional.of(
+                new StreamTokenDto(1L, "/stream/1?token=abc", Instant.parse("2030-01-01T00:00:00Z"))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/tracks/1/stream-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("/stream/1?token=abc"));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void issueToken_WithoutSubscription_ShouldReturn403() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("testUser");
+        when(userService.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(streamTokenService.issue(user, 1L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/tracks/1/stream-token"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(streamTokenService, never()).verify(anyLong(), anyString());
+    }
+}
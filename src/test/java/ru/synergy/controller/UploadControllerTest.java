@@ -11,10 +11,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import ru.synergy.dto.CatalogImportResultDto;
+import ru.synergy.dto.UploadJobDto;
 import ru.synergy.model.Track;
+import ru.synergy.service.CatalogImportService;
 import ru.synergy.service.TrackService;
+import ru.synergy.service.UploadJobService;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,9 +36,15 @@ class UploadControllerTest {
     @MockitoBean
     private TrackService trackService;
 
+    @MockitoBean
+    private UploadJobService uploadJobService;
+
+    @MockitoBean
+    private CatalogImportService catalogImportService;
+
     @Test
     @WithMockUser(username = "testUser")
-    void uploadTrack_ShouldSaveTrackAndReturnSuccess() throws Exception {
+    void uploadTrack_ShouldSubmitJobAndReturnJobId() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
                 "file",
                 "test.mp3",
@@ -37,14 +52,8 @@ class UploadControllerTest {
                 "file content".getBytes()
         );
 
-        Track savedTrack = new Track();
-        savedTrack.setId(1L);
-        savedTrack.setTitle("New Track");
-        savedTrack.setArtist("Artist");
-        savedTrack.setGenres("Rock");
-
-        when(trackService.saveTrack(any(Track.class), any(MultipartFile.class)))
-                .thenReturn(savedTrack);
+        when(uploadJobService.submit(any(Track.class), any(MultipartFile.class), eq("testUser")))
+                .thenReturn("job-1");
 
         MockMultipartHttpServletRequestBuilder request = MockMvcRequestBuilders.multipart("/upload-track")
                 .file(file)
@@ -55,10 +64,11 @@ class UploadControllerTest {
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("upload-result"))
-                .andExpect(model().attribute("success", "Трек успешно загружен!"))
-                .andExpect(model().attribute("track", savedTrack));
+                .andExpect(model().attribute("success", "Трек принят в обработку"))
+                .andExpect(model().attribute("jobId", "job-1"));
 
-        verify(trackService).saveTrack(any(Track.class), any(MultipartFile.class));
+        verify(uploadJobService).submit(any(Track.class), any(MultipartFile.class), eq("testUser"));
+        verifyNoInteractions(trackService);
     }
 
     @Test
@@ -71,8 +81,8 @@ class UploadControllerTest {
                 "bad content".getBytes()
         );
 
-        when(trackService.saveTrack(any(Track.class), any(MultipartFile.class)))
-                .thenThrow(new RuntimeException("Ошибка сохранения файла"));
+        when(uploadJobService.submit(any(Track.class), any(MultipartFile.class), eq("testUser")))
+                .thenThrow(new IllegalStateException("Слишком много загрузок в очереди, попробуйте позже"));
 
         MockMultipartHttpServletRequestBuilder request = MockMvcRequestBuilders.multipart("/upload-track")
                 .file(file)
@@ -83,9 +93,10 @@ class UploadControllerTest {
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("upload-result"))
-                .andExpect(model().attribute("error", "Ошибка при загрузке: Ошибка сохранения файла"));
+                .andExpect(model().attribute("error",
+                        "Ошибка при загрузке: Слишком много загрузок в очереди, попробуйте позже"));
 
-        verify(trackService).saveTrack(any(Track.class), any(MultipartFile.class));
+        verify(uploadJobService).submit(any(Track.class), any(MultipartFile.class), eq("testUser"));
     }
 
     @Test
@@ -102,6 +113,73 @@ class UploadControllerTest {
         verifyNoInteractions(trackService);
     }
 
+    @Test
+    @WithMockUser(username = "testUser")
+    void uploadTrackStream_ShouldPassRequestBodyToService() throws Exception {
+        Track savedTrack = new Track();
+        savedTrack.setId(7L);
+        savedTrack.setTitle("Long Track");
+        savedTrack.setArtist("Artist");
+        savedTrack.setFileUrl("http://localhost:9000/music-bucket/long.flac");
+        savedTrack.setChecksum("abc");
+
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), eq("long.flac"), eq("audio/flac")))
+                .thenReturn(savedTrack);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/upload-track/stream")
+                        .param("title", "Long Track")
+                        .param("artist", "Artist")
+                        .param("filename", "long.flac")
+                        .contentType("audio/flac")
+                        .content("lossless".getBytes()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.checksum").value("abc"));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void uploadTrackStream_WithInvalidFileName_ShouldReturnBadRequest() throws Exception {
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), eq("a/b.flac"), any()))
+                .thenThrow(new IllegalArgumentException("Некорректное имя файла"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/upload-track/stream")
+                        .param("title", "Track")
+                        .param("artist", "Artist")
+                        .param("filename", "a/b.flac")
+                        .contentType("audio/flac")
+                        .content("data".getBytes()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Некорректное имя файла"));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void importCatalog_ShouldReturnImportSummary() throws Exception {
+        when(catalogImportService.importArchive(any(InputStream.class)))
+                .thenReturn(new CatalogImportResultDto(2, 1, List.of("missing.mp3: Файл не найден в архиве")));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/upload-tracks/bulk")
+                        .contentType("application/zip")
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    @WithMockUser(username = "testUser")
+    void importCatalog_WithoutManifest_ShouldReturnBadRequest() throws Exception {
+        when(catalogImportService.importArchive(any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("В архиве нет файла manifest.csv"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/upload-tracks/bulk")
+                        .contentType("application/zip")
+                        .content(new byte[]{1, 2, 3}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("В архиве нет файла manifest.csv"));
+    }
+
     @Test
     @WithMockUser(username = "testUser")
     void showUploadForm_ShouldReturnUploadFormView() throws Exception {
@@ -128,13 +206,13 @@ class UploadControllerTest {
                 .param("artist", "Some Artist")
                 .param("genre", "Some Genre");
 
-        when(trackService.saveTrack(any(Track.class), any(MultipartFile.class)))
-                .thenReturn(new Track());
+        when(uploadJobService.submit(any(Track.class), any(MultipartFile.class), eq("testUser")))
+                .thenReturn("job-2");
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
                 .andExpect(view().name("upload-result"));
 
-        verify(trackService).saveTrack(any(Track.class), any(MultipartFile.class));
+        verify(uploadJobService).submit(any(Track.class), any(MultipartFile.class), eq("testUser"));
     }
 }
\ No newline at end of file
@@ -8,9 +8,12 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.User;
 import ru.synergy.service.UserService;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -171,4 +174,49 @@ class UserControllerTest {
         verify(userService).findById(targetId);
         verifyNoMoreInteractions(userService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "follower")
+    void followers_ShouldReturnKeysetPage() throws Exception {
+        User artist = new User();
+        artist.setId(2L);
+
+        when(userService.findById(2L)).thenReturn(Optional.of(artist));
+        when(userService.getFollowersPage(2L, 10L, 2))
+                .thenReturn(new CursorPage<>(List.of(new UserSummaryDto(11L, "a"), new UserSummaryDto(12L, "b")), 12L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/2/followers")
+                        .param("after", "10")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("a"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(12));
+    }
+
+    @Test
+    @WithMockUser(username = "follower")
+    void following_WhenUserNotFound_ShouldReturn404() throws Exception {
+        when(userService.findById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/99/following"))
+                .andExpect(status().isNotFound());
+
+        verify(userService, never()).getFollowingPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(username = "follower")
+    void suggested_ShouldReturnSuggestionsForCurrentUser() throws Exception {
+        User current = new User();
+        current.setId(1L);
+        current.setUsername("follower");
+        when(userService.findByUsername("follower")).thenReturn(Optional.of(current));
+        when(userService.getSuggestedUsers(current, 5)).thenReturn(List.of(new UserSummaryDto(3L, "popular")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/users/suggested").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].username").value("popular"));
+    }
+}
@@ -0,0 +1,139 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.synergy.dto.AudioObjectInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioDiskCacheTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path cacheDir;
+
+    private AudioDiskCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new AudioDiskCache();
+        ReflectionTestUtils.setField(cache, "directory", cacheDir.toString());
+        ReflectionTestUtils.setField(cache, "maxSize", 25L);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void init_shouldLeaveFilesAndDirectoriesItDoesNotOwn() throws Exception {
+        cache.shutdown();
+        Files.writeString(cacheDir.resolve("notes.txt"), "keep");
+        Files.writeString(cacheDir.resolve("stale.audio"), "keep");
+        Files.createDirectories(cacheDir.resolve("nested")).resolve("file.bin").toFile().createNewFile();
+        Files.writeString(cacheDir.resolve("0f8fad5b-d9cb-469f-a165-70867728950e.part"), "partial");
+
+        cache.init();
+
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files).extracting(file -> file.getFileName().toString())
+                    .containsExactlyInAnyOrder("notes.txt", "stale.audio", "nested");
+        }
+    }
+
+    @Test
+    void init_shouldRestoreEntriesCachedByPreviousRun() throws Exception {
+        AudioObjectInfo object = object("song.mp3", "abc");
+        cache.populate(object, () -> new ByteArrayInputStream(CONTENT)).join();
+        cache.shutdown();
+
+        AudioDiskCache restarted = new AudioDiskCache();
+        ReflectionTestUtils.setField(restarted, "directory", cacheDir.toString());
+        ReflectionTestUtils.setField(restarted, "maxSize", 25L);
+        restarted.init();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(restarted.lookup("song.mp3")).isEmpty();
+        assertThat(restarted.transferTo(object, 0, 10, out)).isTrue();
+        assertThat(out.toByteArray()).isEqualTo(CONTENT);
+        assertThat(restarted.stats()).containsEntry("entries", 1L).containsEntry("sizeBytes", 10L);
+        restarted.shutdown();
+    }
+
+    @Test
+    void transferTo_shouldMissUntilObjectIsPopulated() throws Exception {
+        AudioObjectInfo object = object("song.mp3", "abc");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(cache.transferTo(object, 0, 10, out)).isFalse();
+
+        cache.populate(object, () -> new ByteArrayInputStream(CONTENT)).join();
+
+        assertThat(cache.transferTo(object, 2, 4, out)).isTrue();
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo("2345");
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void transferTo_shouldMissWhenEtagDiffers() throws Exception {
+        cache.populate(object("song.mp3", "abc"), () -> new ByteArrayInputStream(CONTENT)).join();
+
+        assertThat(cache.transferTo(object("song.mp3", "changed"), 0, 10, new ByteArrayOutputStream())).isFalse();
+    }
+
+    @Test
+    void validate_shouldEvictEntryWithChangedEtag() {
+        cache.populate(object("song.mp3", "abc"), () -> new ByteArrayInputStream(CONTENT)).join();
+        assertThat(cache.lookup("song.mp3")).isPresent();
+
+        cache.validate(object("song.mp3", "changed"));
+
+        assertThat(cache.lookup("song.mp3")).isEmpty();
+        assertThat(cache.stats()).containsEntry("entries", 0L).containsEntry("sizeBytes", 0L);
+    }
+
+    @Test
+    void lookup_shouldRequireRevalidationAfterTimeout() {
+        ReflectionTestUtils.setField(cache, "revalidateAfter", Duration.ofMillis(-1));
+        cache.populate(object("song.mp3", "abc"), () -> new ByteArrayInputStream(CONTENT)).join();
+
+        assertThat(cache.lookup("song.mp3")).isEmpty();
+    }
+
+    @Test
+    void populate_shouldEvictLeastRecentlyUsedEntryWhenFull() throws Exception {
+        cache.populate(object("a.mp3", "a"), () -> new ByteArrayInputStream(CONTENT)).join();
+        cache.populate(object("b.mp3", "b"), () -> new ByteArrayInputStream(CONTENT)).join();
+        cache.transferTo(object("a.mp3", "a"), 0, 1, new ByteArrayOutputStream());
+
+        cache.populate(object("c.mp3", "c"), () -> new ByteArrayInputStream(CONTENT)).join();
+
+        assertThat(cache.lookup("a.mp3")).isPresent();
+        assertThat(cache.lookup("b.mp3")).isEmpty();
+        assertThat(cache.lookup("c.mp3")).isPresent();
+        assertThat(cache.stats()).containsEntry("evictions", 1L).containsEntry("sizeBytes", 20L);
+    }
+
+    @Test
+    void populate_shouldDiscardTruncatedDownloads() {
+        cache.populate(object("song.mp3", "abc"), () -> new ByteArrayInputStream(new byte[3])).join();
+
+        assertThat(cache.lookup("song.mp3")).isEmpty();
+    }
+
+    private AudioObjectInfo object(String name, String etag) {
+        return new AudioObjectInfo(name, CONTENT.length, etag, "audio/mpeg");
+    }
+}
@@ -0,0 +1,97 @@
+package ru.synergy.service;
+
+import io.minio.StatObjectResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.synergy.dto.AudioObjectInfo;
+import ru.synergy.model.Track;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AudioStreamServiceTest {
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private AudioDiskCache diskCache;
+
+    @InjectMocks
+    private AudioStreamService audioStreamService;
+
+    @Test
+    void objectNameOf_shouldPreferStoredObjectName() {
+        Track track = new Track();
+        track.setObjectName("stored.mp3");
+        track.setFileUrl("http://localhost:9000/music-bucket/other.mp3");
+
+        assertThat(audioStreamService.objectNameOf(track)).isEqualTo("stored.mp3");
+    }
+
+    @Test
+    void objectNameOf_shouldFallBackToFileUrlForLegacyTracks() {
+        Track track = new Track();
+        track.setFileUrl("http://localhost:9000/music-bucket/legacy.mp3");
+
+        assertThat(audioStreamService.objectNameOf(track)).isEqualTo("legacy.mp3");
+    }
+
+    @Test
+    void describe_shouldStripEtagQuotes() throws Exception {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.etag()).thenReturn("\"abc\"");
+        when(stat.size()).thenReturn(42L);
+        when(stat.contentType()).thenReturn("audio/mpeg");
+        when(minioService.statObject("music-bucket", "song.mp3")).thenReturn(stat);
+
+        AudioObjectInfo info = audioStreamService.describe("song.mp3");
+
+        assertThat(info).isEqualTo(new AudioObjectInfo("song.mp3", 42L, "abc", "audio/mpeg"));
+        verify(diskCache).validate(info);
+    }
+
+    @Test
+    void describe_shouldSkipMinioWhenCacheEntryIsFresh() throws Exception {
+        AudioObjectInfo cached = new AudioObjectInfo("song.mp3", 42L, "abc", "audio/mpeg");
+        when(diskCache.lookup("song.mp3")).thenReturn(Optional.of(cached));
+
+        assertThat(audioStreamService.describe("song.mp3")).isEqualTo(cached);
+        verify(minioService, never()).statObject(any(), any());
+    }
+
+    @Test
+    void copyRange_shouldRequestOnlyTheRangeFromMinioOnCacheMiss() throws Exception {
+        AudioObjectInfo object = new AudioObjectInfo("song.mp3", 10L, "abc", "audio/mpeg");
+        byte[] content = "2345".getBytes(StandardCharsets.US_ASCII);
+        when(diskCache.transferTo(eq(object), eq(2L), eq(4L), any())).thenReturn(false);
+        when(minioService.getObject("music-bucket", "song.mp3", 2L, 4L))
+                .thenReturn(new ByteArrayInputStream(content));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        audioStreamService.copyRange(object, 2L, 4L, out);
+
+        assertThat(out.toByteArray()).isEqualTo(content);
+        verify(minioService).getObject("music-bucket", "song.mp3", 2L, 4L);
+        verify(diskCache).populate(eq(object), any());
+    }
+
+    @Test
+    void copyRange_shouldServeFromDiskCacheOnHit() throws Exception {
+        AudioObjectInfo object = new AudioObjectInfo("song.mp3", 10L, "abc", "audio/mpeg");
+        when(diskCache.transferTo(eq(object), eq(2L), eq(4L), any())).thenReturn(true);
+
+        audioStreamService.copyRange(object, 2L, 4L, new ByteArrayOutputStream());
+
+        verifyNoInteractions(minioService);
+        verify(diskCache, never()).populate(any(), any());
+    }
+}
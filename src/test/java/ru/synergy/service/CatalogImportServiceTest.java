@@ -0,0 +1,127 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.synergy.dto.CatalogImportResultDto;
+import ru.synergy.model.Track;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+    @Mock
+    private TrackService trackService;
+
+    @InjectMocks
+    private CatalogImportService catalogImportService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importArchive_shouldUploadEntriesAndSaveTracksInBatch() throws Exception {
+        byte[] archive = zip(Map.of(
+                "manifest.csv", "file;title;artist;genre\naudio/one.mp3;One;Artist;rock\ntwo.flac;Two;Artist;\n",
+                "audio/one.mp3", "1",
+                "two.flac", "2"));
+        when(trackService.saveTracks(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CatalogImportResultDto result = catalogImportService.importArchive(new ByteArrayInputStream(archive));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isZero();
+        verify(trackService).storeAudio(any(Track.class), any(InputStream.class), eq("one.mp3"), eq("audio/mpeg"));
+        verify(trackService).storeAudio(any(Track.class), any(InputStream.class), eq("two.flac"), any());
+
+        ArgumentCaptor<List<Track>> saved = ArgumentCaptor.forClass(List.class);
+        verify(trackService).saveTracks(saved.capture());
+        assertThat(saved.getValue()).extracting(Track::getTitle).containsExactlyInAnyOrder("One", "Two");
+        assertThat(saved.getValue()).filteredOn(t -> t.getTitle().equals("Two"))
+                .extracting(Track::getGenres).containsOnlyNulls();
+    }
+
+    @Test
+    void importArchive_shouldReportEntriesMissingFromArchive() throws Exception {
+        byte[] archive = zip(Map.of(
+                "manifest.csv", "one.mp3;One;Artist;rock\nmissing.mp3;Missing;Artist;rock\n",
+                "one.mp3", "1"));
+        when(trackService.saveTracks(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CatalogImportResultDto result = catalogImportService.importArchive(new ByteArrayInputStream(archive));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("missing.mp3: Файл не найден в архиве");
+    }
+
+    @Test
+    void importArchive_whenChunkSaveFails_shouldRemoveItsObjectsAndContinue() throws Exception {
+        ReflectionTestUtils.setField(catalogImportService, "batchSize", 1);
+        byte[] archive = zip(Map.of(
+                "manifest.csv", "one.mp3;One;Artist;rock\ntwo.mp3;Two;Artist;rock\n",
+                "one.mp3", "1",
+                "two.mp3", "2"));
+        doAnswer(invocation -> {
+            invocation.<Track>getArgument(0).setObjectName(invocation.getArgument(2));
+            return null;
+        }).when(trackService).storeAudio(any(Track.class), any(InputStream.class), anyString(), any());
+        when(trackService.saveTracks(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CatalogImportResultDto result = catalogImportService.importArchive(new ByteArrayInputStream(archive));
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly("Строки 1–1: не удалось сохранить треки: duplicate");
+        verify(trackService).discardAudio("one.mp3");
+        verify(trackService, never()).discardAudio("two.mp3");
+    }
+
+    @Test
+    void importArchive_withoutManifest_shouldThrowException() throws Exception {
+        byte[] archive = zip(Map.of("one.mp3", "1"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> catalogImportService.importArchive(new ByteArrayInputStream(archive)));
+        verifyNoInteractions(trackService);
+    }
+
+    @Test
+    void importArchive_withInvalidArchive_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> catalogImportService.importArchive(
+                new ByteArrayInputStream("not a zip".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
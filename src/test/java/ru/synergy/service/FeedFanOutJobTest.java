@@ -0,0 +1,48 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedFanOutJobTest {
+    @Mock
+    private FeedService feedService;
+
+    @InjectMocks
+    private FeedFanOutJob job;
+
+    @Test
+    void drain_shouldGiveEachPendingEventOneChunkPerPassUntilNothingIsLeft() {
+        when(feedService.findPendingFanOut(FeedFanOutJob.PENDING_BATCH))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+
+        job.drain();
+
+        InOrder order = inOrder(feedService);
+        order.verify(feedService).fanOutChunk(1L, 1000);
+        order.verify(feedService).fanOutChunk(2L, 1000);
+        order.verify(feedService).fanOutChunk(1L, 1000);
+        verify(feedService, times(3)).findPendingFanOut(FeedFanOutJob.PENDING_BATCH);
+    }
+
+    @Test
+    void drain_whenDatabaseFails_shouldStopAndLeaveEventsForNextSweep() {
+        when(feedService.findPendingFanOut(FeedFanOutJob.PENDING_BATCH)).thenReturn(List.of(1L, 2L));
+        when(feedService.fanOutChunk(1L, 1000)).thenThrow(new DataAccessResourceFailureException("down"));
+
+        job.drain();
+
+        verify(feedService, never()).fanOutChunk(2L, 1000);
+    }
+}
@@ -0,0 +1,193 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.model.FeedEvent;
+import ru.synergy.model.FeedEventType;
+import ru.synergy.model.Playlist;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.repository.FeedEventRepository;
+import ru.synergy.repository.FeedItemRepository;
+import ru.synergy.repository.UserFollowRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceTest {
+    @Mock
+    private FeedEventRepository feedEventRepository;
+
+    @Mock
+    private FeedItemRepository feedItemRepository;
+
+    @Mock
+    private UserFollowRepository userFollowRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private FeedService feedService;
+
+    private User actor;
+
+    @BeforeEach
+    void setUp() {
+        actor = new User();
+        actor.setId(2L);
+        actor.setUsername("artist");
+    }
+
+    @Test
+    void publishTrackAdded_shouldStoreEventAndLeaveFanOutForAfterCommit() {
+        Playlist playlist = new Playlist();
+        playlist.setId(10L);
+        playlist.setName("Mix");
+        Track track = new Track();
+        track.setId(20L);
+        track.setTitle("Song");
+        when(feedEventRepository.save(any(FeedEvent.class))).thenAnswer(invocation -> {
+            FeedEvent event = invocation.getArgument(0);
+            event.setId(99L);
+            return event;
+        });
+
+        feedService.publishTrackAdded(actor, playlist, track);
+
+        ArgumentCaptor<FeedEvent> captor = ArgumentCaptor.forClass(FeedEvent.class);
+        verify(feedEventRepository).save(captor.capture());
+        FeedEvent event = captor.getValue();
+        assertThat(event.getType()).isEqualTo(FeedEventType.TRACK_ADDED);
+        assertThat(event.getActorName()).isEqualTo("artist");
+        assertThat(event.getPlaylistName()).isEqualTo("Mix");
+        assertThat(event.getTrackTitle()).isEqualTo("Song");
+        assertThat(event.getFanOutCursor()).isZero();
+        verify(eventPublisher).publishEvent(new FeedEventPublished(99L));
+        verifyNoInteractions(feedItemRepository, userFollowRepository);
+    }
+
+    @Test
+    void fanOutChunk_shouldCopyEventToNextFollowersAndAdvanceCursor() {
+        FeedEvent event = pendingEvent(0L);
+        when(feedEventRepository.findById(99L)).thenReturn(Optional.of(event));
+        when(userFollowRepository.findFollowerIdsAfter(2L, 0L, PageRequest.of(0, 2))).thenReturn(List.of(3L, 7L));
+
+        assertThat(feedService.fanOutChunk(99L, 2)).isTrue();
+
+        verify(feedItemRepository).fanOut(99L, 2L, 0L, 7L);
+        assertThat(event.getFanOutCursor()).isEqualTo(7L);
+    }
+
+    @Test
+    void fanOutChunk_onShortChunk_shouldFinishEvent() {
+        FeedEvent event = pendingEvent(7L);
+        when(feedEventRepository.findById(99L)).thenReturn(Optional.of(event));
+        when(userFollowRepository.findFollowerIdsAfter(2L, 7L, PageRequest.of(0, 2))).thenReturn(List.of(9L));
+
+        assertThat(feedService.fanOutChunk(99L, 2)).isFalse();
+
+        verify(feedItemRepository).fanOut(99L, 2L, 7L, 9L);
+        assertThat(event.getFanOutCursor()).isNull();
+    }
+
+    @Test
+    void fanOutChunk_whenAlreadyFinished_shouldDoNothing() {
+        when(feedEventRepository.findById(99L)).thenReturn(Optional.of(pendingEvent(null)));
+
+        assertThat(feedService.fanOutChunk(99L, 2)).isFalse();
+
+        verifyNoInteractions(userFollowRepository, feedItemRepository);
+    }
+
+    @Test
+    void getFeed_shouldReturnCursorWhenMoreItemsExist() {
+        User reader = new User();
+        reader.setId(1L);
+        List<FeedEvent> events = List.of(event(30L), event(20L), event(10L));
+        when(feedEventRepository.findFeedPage(1L, Long.MAX_VALUE, PageRequest.of(0, 3))).thenReturn(events);
+
+        CursorPage<FeedEvent> page = feedService.getFeed(reader, null, 2);
+
+        assertThat(page.items()).extracting(FeedEvent::getId).containsExactly(30L, 20L);
+        assertThat(page.nextCursor()).isEqualTo(20L);
+    }
+
+    @Test
+    void getFeed_shouldContinueBeforeCursor() {
+        User reader = new User();
+        reader.setId(1L);
+        when(feedEventRepository.findFeedPage(1L, 20L, PageRequest.of(0, 3))).thenReturn(List.of(event(10L)));
+
+        CursorPage<FeedEvent> page = feedService.getFeed(reader, 20L, 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void getFeed_forAnonymousUser_shouldBeEmpty() {
+        assertThat(feedService.getFeed(null, null, 50).items()).isEmpty();
+        verifyNoInteractions(feedEventRepository);
+    }
+
+    @Test
+    void onFollow_shouldBackfillRecentEventsOfFollowedUser() {
+        feedService.onFollow(1L, 2L);
+
+        verify(feedItemRepository).backfill(1L, 2L, 50);
+    }
+
+    @Test
+    void onUnfollow_shouldRemoveFollowedUserItems() {
+        feedService.onUnfollow(1L, 2L);
+
+        verify(feedItemRepository).deleteByUserAndActor(1L, 2L);
+    }
+
+    @Test
+    void purgeExpired_shouldDropItemsAndEventsUpToCutoff() {
+        when(feedEventRepository.findMaxIdCreatedBefore(any(LocalDateTime.class))).thenReturn(500L);
+
+        feedService.purgeExpired();
+
+        verify(feedItemRepository).deleteUpTo(500L);
+        verify(feedEventRepository).deleteUpTo(500L);
+    }
+
+    @Test
+    void purgeExpired_whenNothingExpired_shouldDoNothing() {
+        when(feedEventRepository.findMaxIdCreatedBefore(any(LocalDateTime.class))).thenReturn(null);
+
+        feedService.purgeExpired();
+
+        verifyNoInteractions(feedItemRepository);
+    }
+
+    private FeedEvent pendingEvent(Long cursor) {
+        FeedEvent event = event(99L);
+        event.setActorId(2L);
+        event.setFanOutCursor(cursor);
+        return event;
+    }
+
+    private FeedEvent event(Long id) {
+        FeedEvent event = new FeedEvent();
+        event.setId(id);
+        event.setType(FeedEventType.REVIEW_POSTED);
+        return event;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FollowGraphTest {
+    private static final int MAX_VISITS = 1_000;
+
+    /**
+     * 1 follows 2 and 3; 2 follows 4 and 5; 3 follows 4 and 6; 5 and 6 follow 4, 5 also follows 6
+     */
+    private FollowGraph sampleGraph() {
+        FollowGraph.Builder builder = new FollowGraph.Builder(new long[]{1, 2, 3, 4, 5, 6}, 4);
+        builder.add(1, 2);
+        builder.add(1, 3);
+        builder.add(2, 4);
+        builder.add(2, 5);
+        builder.add(3, 4);
+        builder.add(3, 6);
+        builder.add(5, 4);
+        builder.add(5, 6);
+        builder.add(6, 4);
+        return builder.build();
+    }
+
+    @Test
+    void recommend_shouldRankFriendsOfFriendsByPathCount() {
+        FollowGraph graph = sampleGraph();
+
+        assertThat(graph.userCount()).isEqualTo(6);
+        assertThat(graph.edgeCount()).isEqualTo(9);
+        assertThat(graph.recommend(1L, 10, Set.of(), Set.of(), MAX_VISITS)).containsExactly(4L, 6L, 5L);
+    }
+
+    @Test
+    void recommend_shouldRespectLimit() {
+        assertThat(sampleGraph().recommend(1L, 1, Set.of(), Set.of(), MAX_VISITS)).containsExactly(4L);
+    }
+
+    @Test
+    void recommend_shouldApplyFollowsMadeAfterSnapshot() {
+        FollowGraph graph = sampleGraph();
+
+        assertThat(graph.recommend(1L, 10, Set.of(6L), Set.of(2L), MAX_VISITS)).containsExactly(4L);
+    }
+
+    @Test
+    void recommend_shouldReturnNothingForUnknownOrIsolatedUser() {
+        FollowGraph graph = sampleGraph();
+
+        assertThat(graph.recommend(99L, 10, Set.of(), Set.of(), MAX_VISITS)).isEmpty();
+        assertThat(graph.recommend(4L, 10, Set.of(), Set.of(), MAX_VISITS)).isEmpty();
+        assertThat(FollowGraph.EMPTY.recommend(1L, 10, Set.of(), Set.of(), MAX_VISITS)).isEmpty();
+    }
+
+    @Test
+    void recommend_shouldScoreManyCandidatesBeyondInitialCounterCapacity() {
+        int size = 70_000;
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+        }
+        FollowGraph.Builder builder = new FollowGraph.Builder(ids, size);
+        builder.add(1, 2);
+        for (long target = 3; target <= size; target++) {
+            builder.add(2, target);
+        }
+
+        List<Long> result = builder.build().recommend(1L, 3, Set.of(), Set.of(), 100_000);
+
+        assertThat(result).hasSize(3).doesNotContain(1L, 2L);
+    }
+
+    @Test
+    void builder_shouldRejectUnsortedFollowers() {
+        FollowGraph.Builder builder = new FollowGraph.Builder(new long[]{1, 2, 3}, 2);
+        builder.add(2, 3);
+
+        assertThatThrownBy(() -> builder.add(1, 3)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FollowRecommendationServiceTest {
+    private static final String USERS_SQL = "SELECT id FROM logins ORDER BY id";
+    private static final String FOLLOWS_SQL = "SELECT follower_id, followed_id FROM user_follows ORDER BY follower_id, followed_id";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserFollowStatsService userFollowStatsService;
+
+    @InjectMocks
+    private FollowRecommendationService followRecommendationService;
+
+    @Test
+    void recommend_shouldRankFriendsOfFriendsAndPadWithPopularUsers() throws Exception {
+        loadGraph();
+        when(userRepository.findSummariesByIdIn(List.of(4L)))
+                .thenReturn(List.of(new UserSummaryDto(4L, "friendOfFriend")));
+        when(userFollowStatsService.getMostFollowed(1L, 4))
+                .thenReturn(List.of(new UserSummaryDto(4L, "friendOfFriend"), new UserSummaryDto(9L, "popular")));
+
+        List<UserSummaryDto> result = followRecommendationService.recommend(1L, 2);
+
+        assertThat(result).extracting(UserSummaryDto::id).containsExactly(4L, 9L);
+        assertThat(followRecommendationService.userCount()).isEqualTo(4);
+        assertThat(followRecommendationService.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    void onFollow_shouldAffectSuggestionsBeforeNextRebuild() throws Exception {
+        loadGraph();
+        followRecommendationService.onFollow(1L, 4L);
+        when(userFollowStatsService.getMostFollowed(1L, 2)).thenReturn(List.of());
+
+        assertThat(followRecommendationService.recommend(1L, 1)).isEmpty();
+        verify(userRepository, never()).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void recommend_shouldFallBackToMostFollowedForAnonymousUser() {
+        List<UserSummaryDto> popular = List.of(new UserSummaryDto(9L, "popular"));
+        when(userFollowStatsService.getMostFollowed(null, 5)).thenReturn(popular);
+
+        assertThat(followRecommendationService.recommend(null, 5)).isEqualTo(popular);
+    }
+
+    @Test
+    void rebuild_shouldKeepPreviousGraphWhenLoadFails() throws Exception {
+        loadGraph();
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logins", Integer.class))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        followRecommendationService.rebuild();
+
+        assertThat(followRecommendationService.edgeCount()).isEqualTo(4);
+    }
+
+    /**
+     * Users 1..4; 1 follows 2 and 3, 2 follows 3 and 4
+     */
+    private void loadGraph() throws Exception {
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM logins", Integer.class)).thenReturn(4);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_follows", Integer.class)).thenReturn(4);
+        Map<String, List<long[]>> rows = Map.of(
+                USERS_SQL, List.of(new long[]{1}, new long[]{2}, new long[]{3}, new long[]{4}),
+                FOLLOWS_SQL, List.of(new long[]{1, 2}, new long[]{1, 3}, new long[]{2, 3}, new long[]{2, 4}));
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            Connection connection = mock(Connection.class);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            when(connection.prepareStatement(sql.capture())).thenReturn(mock(PreparedStatement.class));
+            creator.createPreparedStatement(connection);
+            for (long[] row : rows.get(sql.getValue())) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn(row[0]);
+                if (row.length > 1) {
+                    when(resultSet.getLong(2)).thenReturn(row[1]);
+                }
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        followRecommendationService.rebuild();
+    }
+}
@@ -113,26 +113,23 @@ public class MinioServiceTest {
     }
 
     @Test
-    void setBucketPublic_shouldSetPolicySuccessfully() throws Exception {
-        doNothing().when(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
+    void setBucketPrivate_shouldRemovePublicPolicy() throws Exception {
+        doNothing().when(minioClient).deleteBucketPolicy(any(DeleteBucketPolicyArgs.class));
 
-        minioService.setBucketPublic("music-bucket");
+        minioService.setBucketPrivate("music-bucket");
 
-        ArgumentCaptor<SetBucketPolicyArgs> captor = ArgumentCaptor.forClass(SetBucketPolicyArgs.class);
-        verify(minioClient).setBucketPolicy(captor.capture());
-
-        SetBucketPolicyArgs args = captor.getValue();
-        assertThat(args.bucket()).isEqualTo("music-bucket");
-        assertThat(args.config()).contains("\"Effect\":\"Allow\"");
-        assertThat(args.config()).contains("arn:aws:s3:::music-bucket/*");
+        ArgumentCaptor<DeleteBucketPolicyArgs> captor = ArgumentCaptor.forClass(DeleteBucketPolicyArgs.class);
+        verify(minioClient).deleteBucketPolicy(captor.capture());
+        assertThat(captor.getValue().bucket()).isEqualTo("music-bucket");
+        verify(minioClient, never()).setBucketPolicy(any(SetBucketPolicyArgs.class));
     }
 
     @Test
-    void setBucketPublic_shouldRethrowIOException() throws Exception {
+    void setBucketPrivate_shouldRethrowIOException() throws Exception {
         doThrow(new IOException("IO error"))
-                .when(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
+                .when(minioClient).deleteBucketPolicy(any(DeleteBucketPolicyArgs.class));
 
-        assertThatThrownBy(() -> minioService.setBucketPublic("music-bucket"))
+        assertThatThrownBy(() -> minioService.setBucketPrivate("music-bucket"))
                 .isInstanceOf(RuntimeException.class)
                 .hasCauseInstanceOf(IOException.class);
     }
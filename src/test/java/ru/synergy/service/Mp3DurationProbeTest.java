@@ -0,0 +1,57 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Mp3DurationProbeTest {
+
+    @Test
+    void durationSeconds_shouldSumFramesAfterId3TagAndBeforeTrailingTag() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, 20});
+        file.write(new byte[20]);
+        file.write(frames(383, 0xFB, 0x90, 417));
+        file.write("TAG".getBytes(StandardCharsets.US_ASCII));
+        file.write(new byte[125]);
+
+        Mp3DurationProbe probe = new Mp3DurationProbe(new ByteArrayInputStream(file.toByteArray()));
+        probe.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(probe.durationSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    void durationSeconds_shouldHandleMpeg2AndSingleByteReads() throws Exception {
+        Mp3DurationProbe probe = new Mp3DurationProbe(new ByteArrayInputStream(frames(1149, 0xF3, 0x80, 208)));
+        while (probe.read() >= 0) {
+            // read byte by byte to cross every header boundary
+        }
+
+        assertThat(probe.durationSeconds()).isEqualTo(30);
+    }
+
+    @Test
+    void durationSeconds_whenNotMpegAudio_shouldBeNull() throws Exception {
+        Mp3DurationProbe probe = new Mp3DurationProbe(
+                new ByteArrayInputStream("fLaC not an mp3".getBytes(StandardCharsets.US_ASCII)));
+        probe.transferTo(OutputStream.nullOutputStream());
+
+        assertThat(probe.durationSeconds()).isNull();
+    }
+
+    static byte[] frames(int count, int versionAndLayer, int bitrateAndRate, int frameLength) {
+        byte[] data = new byte[count * frameLength];
+        for (int i = 0; i < count; i++) {
+            data[i * frameLength] = (byte) 0xFF;
+            data[i * frameLength + 1] = (byte) versionAndLayer;
+            data[i * frameLength + 2] = (byte) bitrateAndRate;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.synergy.dto.PlayEventRequest;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.PlayEventType;
+import ru.synergy.model.User;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayEventServiceTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlayEventSpool spool;
+    @Mock
+    private TopChartService topChartService;
+    @InjectMocks
+    private PlayEventService playEventService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(playEventService, "writerEnabled", false);
+        ReflectionTestUtils.setField(playEventService, "bufferCapacity", 2);
+        playEventService.init();
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("listener");
+    }
+
+    @Test
+    void record_shouldBufferWithoutTouchingDatabase() {
+        playEventService.record(user, new PlayEventRequest(10L, PlayEventType.START, null));
+
+        assertThat(playEventService.bufferedCount()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, spool, topChartService);
+    }
+
+    @Test
+    void record_shouldRejectInvalidRequests() {
+        assertThatThrownBy(() -> playEventService.record(user, new PlayEventRequest(null, PlayEventType.START, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> playEventService.record(user, new PlayEventRequest(10L, null, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> playEventService.record(user, new PlayEventRequest(10L, PlayEventType.PROGRESS, -5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void record_whenBufferFull_shouldSpoolAndThenPushBack() {
+        playEventService.record(user, new PlayEventRequest(10L, PlayEventType.START, 0));
+        playEventService.record(user, new PlayEventRequest(11L, PlayEventType.START, 0));
+        when(spool.append(anyList())).thenReturn(true, false);
+
+        playEventService.record(user, new PlayEventRequest(12L, PlayEventType.START, 0));
+
+        assertThat(playEventService.spooledCount()).isEqualTo(1);
+        assertThatThrownBy(() -> playEventService.record(user, new PlayEventRequest(13L, PlayEventType.START, 0)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void flushPending_shouldWriteBatchAsSingleMultiRowInsert() {
+        playEventService.record(user, new PlayEventRequest(10L, PlayEventType.START, 0));
+        playEventService.record(user, new PlayEventRequest(10L, PlayEventType.COMPLETE, 200));
+
+        assertThat(playEventService.flushPending()).isEqualTo(2);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(sql.capture(), args.capture());
+        assertThat(sql.getValue()).startsWith("INSERT INTO play_events").endsWith("(?, ?, ?, ?, ?), (?, ?, ?, ?, ?)");
+        assertThat(args.getValue()).hasSize(10);
+        assertThat(args.getValue()[7]).isEqualTo("COMPLETE");
+        assertThat(args.getValue()[8]).isEqualTo(200);
+        assertThat(playEventService.bufferedCount()).isZero();
+        verify(topChartService).onPlays(argThat(plays -> plays.size() == 2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushPending_whenDatabaseFails_shouldSpoolBatch() {
+        playEventService.record(user, new PlayEventRequest(10L, PlayEventType.START, 0));
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        when(spool.append(anyList())).thenReturn(true);
+
+        playEventService.flushPending();
+
+        ArgumentCaptor<List<RecordedPlay>> spooled = ArgumentCaptor.forClass(List.class);
+        verify(spool).append(spooled.capture());
+        assertThat(spooled.getValue()).extracting(RecordedPlay::trackId).containsExactly(10L);
+        assertThat(playEventService.spooledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void insert_shouldSplitLargeBatchesIntoSeveralStatements() {
+        List<RecordedPlay> plays = LongStream.range(0, 1200)
+                .mapToObj(i -> new RecordedPlay(1L, i, PlayEventType.START, 0, 0L))
+                .toList();
+
+        playEventService.insert(plays);
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void replaySpool_shouldFeedSpooledBatchesToInsert() throws Exception {
+        when(spool.isEmpty()).thenReturn(false);
+
+        playEventService.replaySpool();
+
+        verify(spool).replay(eq(1000), any());
+    }
+}
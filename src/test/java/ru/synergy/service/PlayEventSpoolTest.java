@@ -0,0 +1,88 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.PlayEventType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlayEventSpoolTest {
+    @TempDir
+    Path spoolDir;
+
+    private PlayEventSpool spool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spool = new PlayEventSpool();
+        ReflectionTestUtils.setField(spool, "directory", spoolDir.toString());
+        spool.init();
+    }
+
+    @Test
+    void replay_shouldReturnAppendedEventsInBatchesAndEmptyTheSpool() throws Exception {
+        spool.append(List.of(play(1), play(2), play(3)));
+        List<List<RecordedPlay>> batches = new ArrayList<>();
+
+        spool.replay(2, batches::add);
+
+        assertThat(batches).containsExactly(List.of(play(1), play(2)), List.of(play(3)));
+        assertThat(spool.isEmpty()).isTrue();
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void append_shouldRefuseWhenMaxSizeWouldBeExceeded() {
+        ReflectionTestUtils.setField(spool, "maxSize", 40L);
+
+        assertThat(spool.append(List.of(play(1)))).isTrue();
+        assertThat(spool.append(List.of(play(2), play(3)))).isFalse();
+    }
+
+    @Test
+    void replay_whenSinkFails_shouldKeepUnsentEventsOnly() throws Exception {
+        spool.append(List.of(play(1), play(2), play(3)));
+        List<RecordedPlay> written = new ArrayList<>();
+
+        assertThatThrownBy(() -> spool.replay(1, batch -> {
+            if (batch.get(0).trackId() == 2) {
+                throw new IllegalStateException("db down");
+            }
+            written.addAll(batch);
+        })).isInstanceOf(IllegalStateException.class);
+        spool.replay(10, written::addAll);
+
+        assertThat(written).containsExactly(play(1), play(2), play(3));
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    @Test
+    void init_shouldPickUpEventsLeftByPreviousRun() throws Exception {
+        spool.append(List.of(play(7)));
+        Files.writeString(spoolDir.resolve("plays.spool"), "garbage\n", StandardOpenOption.APPEND);
+
+        PlayEventSpool restarted = new PlayEventSpool();
+        ReflectionTestUtils.setField(restarted, "directory", spoolDir.toString());
+        restarted.init();
+        List<RecordedPlay> written = new ArrayList<>();
+        restarted.replay(10, written::addAll);
+
+        assertThat(written).containsExactly(play(7));
+    }
+
+    private static RecordedPlay play(long trackId) {
+        return new RecordedPlay(1L, trackId, PlayEventType.START, 0, 1_700_000_000_000L + trackId);
+    }
+}
@@ -3,15 +3,29 @@ package ru.synergy.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.PlaylistBulkResultDto;
+import ru.synergy.dto.PlaylistEntryDto;
+import ru.synergy.dto.PlaylistSummaryDto;
 import ru.synergy.model.Playlist;
+import ru.synergy.model.PlaylistTrack;
+import ru.synergy.model.Track;
+import ru.synergy.model.TrackRating;
 import ru.synergy.model.User;
 import ru.synergy.repository.PlaylistRepository;
+import ru.synergy.repository.PlaylistTrackRepository;
+import ru.synergy.repository.TrackRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,6 +35,16 @@ import static org.mockito.Mockito.*;
 public class PlaylistServiceTest {
     @Mock
     private PlaylistRepository playlistRepository;
+    @Mock
+    private PlaylistTrackRepository playlistTrackRepository;
+    @Mock
+    private TrackRepository trackRepository;
+    @Mock
+    private FeedService feedService;
+    @Mock
+    private TrackRatingService trackRatingService;
+    @Captor
+    private ArgumentCaptor<List<PlaylistTrack>> savedEntries;
 
     @InjectMocks
     private PlaylistService playlistService;
@@ -53,33 +77,204 @@ public class PlaylistServiceTest {
     }
 
     @Test
-    void getPlaylistsOfUsers_shouldReturnPlaylistsForUsers() {
-        List<User> users = List.of(user);
-        List<Playlist> playlists = List.of(playlist);
-        when(playlistRepository.findByUserIn(users)).thenReturn(playlists);
+    void save_shouldSavePlaylist() {
+        when(playlistRepository.save(playlist)).thenReturn(playlist);
 
-        List<Playlist> result = playlistService.getPlaylistsOfUsers(users);
+        playlistService.save(playlist);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getUser().getId()).isEqualTo(1L);
-        verify(playlistRepository).findByUserIn(users);
+        verify(playlistRepository).save(playlist);
     }
 
     @Test
-    void getPlaylistsOfUsers_shouldReturnEmptyListForEmptyUsers() {
-        List<Playlist> result = playlistService.getPlaylistsOfUsers(List.of());
+    void create_shouldSavePlaylistAndPublishFeedEvent() {
+        when(playlistRepository.save(playlist)).thenReturn(playlist);
 
-        assertThat(result).isEmpty();
-        verifyNoInteractions(playlistRepository);
+        playlistService.create(playlist);
+
+        verify(playlistRepository).save(playlist);
+        verify(feedService).publishPlaylistCreated(user, playlist);
     }
 
     @Test
-    void save_shouldSavePlaylist() {
-        when(playlistRepository.save(playlist)).thenReturn(playlist);
+    void addTrack_shouldAppendAfterLastPosition() {
+        Track track = new Track();
+        track.setId(5L);
+        track.setDurationSeconds(180);
+        when(playlistTrackRepository.findMaxPosition(1L)).thenReturn(2048L);
 
-        playlistService.save(playlist);
+        PlaylistTrack entry = playlistService.addTrack(playlist, track);
 
-        verify(playlistRepository).save(playlist);
+        assertThat(entry.getPosition()).isEqualTo(3072L);
+        verify(playlistTrackRepository).save(entry);
+        verify(playlistRepository).adjustSummary(1L, 1, 180);
+        verify(feedService).publishTrackAdded(user, playlist, track);
+    }
+
+    @Test
+    void addTrack_toEmptyPlaylist_shouldStartAtFirstGap() {
+        when(playlistTrackRepository.findMaxPosition(1L)).thenReturn(null);
+
+        PlaylistTrack entry = playlistService.addTrack(playlist, new Track());
+
+        assertThat(entry.getPosition()).isEqualTo(1024L);
+    }
+
+    @Test
+    void insertTrack_shouldTakeMidpointBetweenNeighbours() {
+        when(playlistTrackRepository.findPosition(1L, 10L)).thenReturn(Optional.of(1024L));
+        when(playlistTrackRepository.findNextPosition(1L, 1024L)).thenReturn(2048L);
+
+        PlaylistTrack entry = playlistService.insertTrack(playlist, new Track(), 10L);
+
+        assertThat(entry.getPosition()).isEqualTo(1536L);
+        verify(playlistTrackRepository, never()).rebalance(anyLong(), anyLong());
+    }
+
+    @Test
+    void insertTrack_whenGapExhausted_shouldRebalanceOnce() {
+        when(playlistTrackRepository.findPosition(1L, 10L)).thenReturn(Optional.of(1024L))
+                .thenReturn(Optional.of(2048L));
+        when(playlistTrackRepository.findNextPosition(1L, 1024L)).thenReturn(1025L);
+        when(playlistTrackRepository.findNextPosition(1L, 2048L)).thenReturn(3072L);
+
+        PlaylistTrack entry = playlistService.insertTrack(playlist, new Track(), 10L);
+
+        assertThat(entry.getPosition()).isEqualTo(2560L);
+        verify(playlistTrackRepository).rebalance(1L, 1024L);
+    }
+
+    @Test
+    void moveEntry_shouldUpdateOnlyMovedRow() {
+        when(playlistTrackRepository.findPosition(1L, 20L)).thenReturn(Optional.of(5120L));
+        when(playlistTrackRepository.findNextPosition(1L, 0L)).thenReturn(1024L);
+
+        playlistService.moveEntry(playlist, 20L, null);
+
+        verify(playlistTrackRepository).updatePosition(1L, 20L, 512L);
+    }
+
+    @Test
+    void removeEntry_shouldDeleteRowAndDecrementSummary() {
+        when(playlistTrackRepository.findDuration(1L, 20L)).thenReturn(Optional.of(200));
+        when(playlistTrackRepository.deleteEntry(1L, 20L)).thenReturn(1);
+
+        playlistService.removeEntry(playlist, 20L);
+
+        verify(playlistRepository).adjustSummary(1L, -1, -200);
+    }
+
+    @Test
+    void removeEntry_whenMissing_shouldThrow() {
+        when(playlistTrackRepository.findDuration(1L, 99L)).thenReturn(Optional.empty());
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> playlistService.removeEntry(playlist, 99L)
+        );
+
+        assertThat(exception.getMessage()).isEqualTo("Трек в плейлисте не найден");
+        verify(playlistTrackRepository, never()).deleteEntry(any(), any());
+    }
+
+    @Test
+    void getTracksPage_shouldContinueAfterCursorEntry() {
+        List<PlaylistTrack> entries = List.of(entry(11L, 1L), entry(12L, 2L), entry(13L, 3L));
+        when(playlistTrackRepository.findPosition(1L, 10L)).thenReturn(Optional.of(10240L));
+        when(playlistTrackRepository.findPageAfter(1L, 10240L, 10L, PageRequest.of(0, 3))).thenReturn(entries);
+
+        CursorPage<PlaylistTrack> page = playlistService.getTracksPage(playlist, 10L, 2);
+
+        assertThat(page.items()).extracting(PlaylistTrack::getId).containsExactly(11L, 12L);
+        assertThat(page.nextCursor()).isEqualTo(12L);
+    }
+
+    @Test
+    void getEntriesPage_shouldLoadRatingsInOneBatch() {
+        when(playlistTrackRepository.findFirstPage(1L, PageRequest.of(0, 51)))
+                .thenReturn(List.of(entry(11L, 1L), entry(12L, 2L)));
+        TrackRating rating = new TrackRating();
+        rating.setTrackId(2L);
+        rating.setRatingCount(2);
+        rating.setRatingSum(9);
+        when(trackRatingService.getRatings(List.of(1L, 2L))).thenReturn(Map.of(2L, rating));
+
+        CursorPage<PlaylistEntryDto> page = playlistService.getEntriesPage(playlist, null, 50);
+
+        assertThat(page.items()).extracting(PlaylistEntryDto::averageRating).containsExactly(null, 4.5);
+        assertThat(page.hasNext()).isFalse();
+        verify(trackRatingService).getRatings(List.of(1L, 2L));
+    }
+
+    @Test
+    void getSummary_shouldUseCountersWithoutLoadingTracks() {
+        playlist.setTrackCount(5000);
+        playlist.setTotalDurationSeconds(3725);
+
+        PlaylistSummaryDto summary = playlistService.getSummary(playlist);
+
+        assertThat(summary.trackCount()).isEqualTo(5000);
+        assertThat(summary.formattedDuration()).isEqualTo("1:02:05");
+        verifyNoInteractions(playlistTrackRepository);
+    }
+
+    @Test
+    void bulkEdit_shouldDeduplicateAndBatchInsertNewTracks() {
+        Track first = track(1L, 100);
+        Track third = track(3L, 200);
+        when(playlistTrackRepository.findTrackIdsAmong(eq(1L), anyCollection())).thenReturn(List.of(2L));
+        when(trackRepository.findAllById(anyCollection())).thenReturn(List.of(first, third));
+        when(playlistTrackRepository.findMaxPosition(1L)).thenReturn(1024L);
+
+        PlaylistBulkResultDto result = playlistService.bulkEdit(playlist, List.of(1L, 2L, 1L, 3L, 4L), null);
+
+        assertThat(result.added()).isEqualTo(2);
+        assertThat(result.skipped()).isEqualTo(2);
+        assertThat(result.missing()).containsExactly(4L);
+        verify(playlistTrackRepository).saveAll(savedEntries.capture());
+        assertThat(savedEntries.getValue()).extracting(PlaylistTrack::getPosition).containsExactly(2048L, 3072L);
+        verify(playlistRepository).adjustSummary(1L, 2, 300);
+        verify(feedService).publishTracksAdded(user, playlist, 2);
+    }
+
+    @Test
+    void bulkEdit_shouldRemoveTracksWithSingleDelete() {
+        when(playlistTrackRepository.sumDurationOfTracks(1L, Set.of(5L, 6L))).thenReturn(400L);
+        when(playlistTrackRepository.deleteTracks(1L, Set.of(5L, 6L))).thenReturn(2);
+
+        PlaylistBulkResultDto result = playlistService.bulkEdit(playlist, List.of(), List.of(5L, 6L));
+
+        assertThat(result.removed()).isEqualTo(2);
+        verify(playlistRepository).adjustSummary(1L, -2, -400);
+        verify(playlistTrackRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void bulkEdit_whenTooManyTracks_shouldThrow() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> playlistService.bulkEdit(playlist, ids, null)
+        );
+
+        assertThat(exception.getMessage()).contains("1000");
+        verifyNoInteractions(playlistTrackRepository, trackRepository);
+    }
+
+    private Track track(Long id, int durationSeconds) {
+        Track track = new Track();
+        track.setId(id);
+        track.setDurationSeconds(durationSeconds);
+        return track;
+    }
+
+    private PlaylistTrack entry(Long entryId, Long trackId) {
+        Track track = new Track();
+        track.setId(trackId);
+        PlaylistTrack entry = new PlaylistTrack();
+        entry.setId(entryId);
+        entry.setTrack(track);
+        return entry;
     }
 
     @Test
@@ -89,6 +284,7 @@ public class PlaylistServiceTest {
         playlistService.deletePlaylist(1L);
 
         verify(playlistRepository).existsById(1L);
+        verify(feedService).deletePlaylistEvents(1L);
         verify(playlistRepository).deleteById(1L);
     }
 
@@ -104,6 +300,7 @@ public class PlaylistServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Плейлист не найден");
         verify(playlistRepository).existsById(999L);
         verify(playlistRepository, never()).deleteById(999L);
+        verifyNoInteractions(feedService);
     }
 
     @Test
@@ -0,0 +1,79 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingChartTest {
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void top_shouldRankKeysAcrossBucketsOfTheWindow() {
+        SlidingChart chart = new SlidingChart(MINUTE, 3, 4, 256, 10);
+        add(chart, "a", 5, 0);
+        add(chart, "b", 3, MINUTE);
+        add(chart, "a", 1, 2 * MINUTE);
+        add(chart, "c", 4, 2 * MINUTE);
+
+        assertThat(chart.top(2, 2 * MINUTE))
+                .containsExactly(new SlidingChart.Count("a", 6), new SlidingChart.Count("c", 4));
+        assertThat(chart.total(2 * MINUTE)).isEqualTo(13);
+    }
+
+    @Test
+    void top_shouldDropBucketsThatSlidOutOfTheWindow() {
+        SlidingChart chart = new SlidingChart(MINUTE, 3, 4, 256, 10);
+        add(chart, "old", 10, 0);
+        add(chart, "new", 1, 4 * MINUTE);
+
+        assertThat(chart.top(10, 4 * MINUTE)).containsExactly(new SlidingChart.Count("new", 1));
+        assertThat(chart.total(4 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void add_shouldIgnoreEventsOlderThanTheBucketInTheirSlot() {
+        SlidingChart chart = new SlidingChart(MINUTE, 3, 4, 256, 10);
+        add(chart, "new", 1, 3 * MINUTE);
+        add(chart, "late", 1, 0);
+
+        assertThat(chart.top(10, 3 * MINUTE)).extracting(SlidingChart.Count::key).containsExactly("new");
+    }
+
+    @Test
+    void heavyHitters_shouldKeepFrequentKeysWhenCandidatesOverflow() {
+        SlidingChart chart = new SlidingChart(MINUTE, 1, 4, 1024, 3);
+        for (int i = 0; i < 200; i++) {
+            add(chart, "hit-" + (i % 3), 5, 0);
+            add(chart, "noise-" + i, 1, 0);
+        }
+
+        assertThat(chart.top(3, 0)).extracting(SlidingChart.Count::key)
+                .containsExactlyInAnyOrder("hit-0", "hit-1", "hit-2");
+    }
+
+    @Test
+    void snapshot_shouldRestoreCounts() throws Exception {
+        SlidingChart chart = new SlidingChart(MINUTE, 3, 4, 256, 10);
+        add(chart, "a", 2, MINUTE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        chart.writeTo(new DataOutputStream(bytes));
+
+        SlidingChart restored = new SlidingChart(MINUTE, 3, 4, 256, 10);
+        SlidingChart otherLayout = new SlidingChart(MINUTE, 4, 4, 256, 10);
+
+        assertThat(restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isTrue();
+        assertThat(restored.top(10, MINUTE)).containsExactly(new SlidingChart.Count("a", 2));
+        assertThat(otherLayout.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))).isFalse();
+    }
+
+    private static void add(SlidingChart chart, String key, int times, long timestamp) {
+        for (int i = 0; i < times; i++) {
+            chart.add(key, 1, timestamp);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.synergy.dto.StreamTokenDto;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.model.User;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamTokenServiceTest {
+    @Mock
+    private SubscriptionStatusService subscriptionStatusService;
+
+    @InjectMocks
+    private StreamTokenService streamTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        streamTokenService.setSecret("test-secret");
+        user = new User();
+        user.setId(7L);
+        user.setUsername("testUser");
+    }
+
+    @Test
+    void issue_shouldSignTokenThatVerifiesForSameTrackOnly() {
+        when(subscriptionStatusService.getStatus(user))
+                .thenReturn(new SubscriptionStatus(true, LocalDateTime.now().plusDays(30)));
+
+        StreamTokenDto dto = streamTokenService.issue(user, 1L).orElseThrow();
+        String token = tokenOf(dto);
+
+        assertThat(dto.url()).startsWith("/stream/1?token=7.");
+        assertThat(streamTokenService.verify(1L, token)).isTrue();
+        assertThat(streamTokenService.verify(2L, token)).isFalse();
+    }
+
+    @Test
+    void issue_shouldRefuseUsersWithoutActiveSubscription() {
+        when(subscriptionStatusService.getStatus(user)).thenReturn(SubscriptionStatus.NONE);
+
+        assertThat(streamTokenService.issue(user, 1L)).isEmpty();
+        assertThat(streamTokenService.issueUrls(user, List.of(1L, 2L))).isEmpty();
+    }
+
+    @Test
+    void issue_shouldNotOutliveSubscription() {
+        LocalDateTime endDate = LocalDateTime.now().plusMinutes(5);
+        when(subscriptionStatusService.getStatus(user)).thenReturn(new SubscriptionStatus(true, endDate));
+
+        StreamTokenDto dto = streamTokenService.issue(user, 1L).orElseThrow();
+
+        assertThat(dto.expiresAt()).isBefore(Instant.now().plus(Duration.ofMinutes(6)));
+    }
+
+    @Test
+    void verify_shouldRejectTamperedAndExpiredTokens() {
+        when(subscriptionStatusService.getStatus(user))
+                .thenReturn(new SubscriptionStatus(true, LocalDateTime.now().plusDays(30)));
+        String token = tokenOf(streamTokenService.issue(user, 1L).orElseThrow());
+
+        assertThat(streamTokenService.verify(1L, token.replaceFirst("^7\\.", "8."))).isFalse();
+        assertThat(streamTokenService.verify(1L, "7.1.AAAA")).isFalse();
+        assertThat(streamTokenService.verify(1L, "garbage")).isFalse();
+        assertThat(streamTokenService.verify(1L, null)).isFalse();
+    }
+
+    @Test
+    void verify_shouldRejectTokensSignedWithAnotherSecret() {
+        when(subscriptionStatusService.getStatus(user))
+                .thenReturn(new SubscriptionStatus(true, LocalDateTime.now().plusDays(30)));
+        String token = tokenOf(streamTokenService.issue(user, 1L).orElseThrow());
+
+        streamTokenService.setSecret("rotated-secret");
+
+        assertThat(streamTokenService.verify(1L, token)).isFalse();
+    }
+
+    @Test
+    void issueUrls_shouldSignEveryTrackWithOneStatusLookup() {
+        when(subscriptionStatusService.getStatus(user))
+                .thenReturn(new SubscriptionStatus(true, LocalDateTime.now().plusDays(30)));
+
+        Map<Long, String> urls = streamTokenService.issueUrls(user, List.of(1L, 2L, 3L));
+
+        assertThat(urls).containsOnlyKeys(1L, 2L, 3L);
+        verify(subscriptionStatusService, times(1)).getStatus(user);
+    }
+
+    private static String tokenOf(StreamTokenDto dto) {
+        return dto.url().substring(dto.url().indexOf("token=") + "token=".length());
+    }
+}
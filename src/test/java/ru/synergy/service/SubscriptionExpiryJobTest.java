@@ -0,0 +1,39 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionExpiryJobTest {
+    @Mock
+    private SubscriptionStatusService subscriptionStatusService;
+
+    @InjectMocks
+    private SubscriptionExpiryJob job;
+
+    @Test
+    void expireLapsed_shouldSweepUntilShortChunk() {
+        when(subscriptionStatusService.expireBatch(any(), eq(1000))).thenReturn(1000, 1000, 3);
+
+        assertThat(job.expireLapsed()).isEqualTo(2003);
+
+        verify(subscriptionStatusService, times(3)).expireBatch(any(), eq(1000));
+    }
+
+    @Test
+    void expireLapsed_shouldStopWhenNothingExpired() {
+        when(subscriptionStatusService.expireBatch(any(), eq(1000))).thenReturn(0);
+
+        assertThat(job.expireLapsed()).isZero();
+
+        verify(subscriptionStatusService, times(1)).expireBatch(any(), eq(1000));
+    }
+}
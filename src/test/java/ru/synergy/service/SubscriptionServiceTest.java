@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.synergy.model.User;
 import ru.synergy.model.UserSubscription;
 import ru.synergy.repository.UserRepository;
@@ -29,6 +30,9 @@ public class SubscriptionServiceTest {
     @Mock
     private UserRepository userRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -107,6 +111,18 @@ public class SubscriptionServiceTest {
         verify(userRepo).findByUsername("unknown");
         verify(subRepo, never()).findByUserAndIsActive(any(), anyBoolean());
         verify(subRepo, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void subscribe_shouldPublishNewEndDateForStatusCache() {
+        when(userRepo.findByUsername("testUser")).thenReturn(Optional.of(user));
+        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(activeSub));
+        when(subRepo.save(any(UserSubscription.class))).thenAnswer(i -> i.getArgument(0));
+
+        UserSubscription result = subscriptionService.subscribe("testUser", 30);
+
+        verify(eventPublisher).publishEvent(new SubscriptionChangedEvent(1L, true, result.getEndDate()));
     }
 
     @Test
@@ -0,0 +1,110 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.dto.SubscriptionStatus;
+import ru.synergy.model.User;
+import ru.synergy.model.UserSubscription;
+import ru.synergy.repository.UserSubscriptionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionStatusServiceTest {
+    @Mock
+    private UserSubscriptionRepository subRepo;
+
+    @InjectMocks
+    private SubscriptionStatusService subscriptionStatusService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testUser");
+    }
+
+    @Test
+    void getStatus_shouldServeRepeatedLookupsFromCache() {
+        UserSubscription subscription = new UserSubscription();
+        subscription.setEndDate(LocalDateTime.now().plusDays(10));
+        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(subscription));
+
+        SubscriptionStatus first = subscriptionStatusService.getStatus(user);
+        SubscriptionStatus second = subscriptionStatusService.getStatus(user);
+
+        assertThat(first.active()).isTrue();
+        assertThat(second).isEqualTo(first);
+        verify(subRepo, times(1)).findByUserAndIsActive(user, true);
+    }
+
+    @Test
+    void getStatus_shouldReturnNoneForAnonymousUser() {
+        assertThat(subscriptionStatusService.getStatus(null)).isEqualTo(SubscriptionStatus.NONE);
+
+        verifyNoInteractions(subRepo);
+    }
+
+    @Test
+    void getStatus_shouldTreatLapsedEndDateAsInactiveBeforeSweep() {
+        UserSubscription subscription = new UserSubscription();
+        subscription.setEndDate(LocalDateTime.now().minusMinutes(1));
+        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(subscription));
+
+        assertThat(subscriptionStatusService.hasActiveSubscription(user)).isFalse();
+    }
+
+    @Test
+    void onSubscriptionChanged_shouldReplaceCachedStatus() {
+        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.empty());
+        assertThat(subscriptionStatusService.getStatus(user)).isEqualTo(SubscriptionStatus.NONE);
+
+        LocalDateTime endDate = LocalDateTime.now().plusDays(30);
+        subscriptionStatusService.onSubscriptionChanged(new SubscriptionChangedEvent(1L, true, endDate));
+
+        assertThat(subscriptionStatusService.getStatus(user)).isEqualTo(new SubscriptionStatus(true, endDate));
+        verify(subRepo, times(1)).findByUserAndIsActive(user, true);
+    }
+
+    @Test
+    void expireBatch_shouldDeactivateChunkAndEvictOwners() {
+        LocalDateTime now = LocalDateTime.now();
+        UserSubscription subscription = new UserSubscription();
+        subscription.setEndDate(now.plusDays(1));
+        when(subRepo.findByUserAndIsActive(user, true)).thenReturn(Optional.of(subscription));
+        subscriptionStatusService.getStatus(user);
+
+        when(subRepo.findExpiredActiveIds(now, PageRequest.of(0, 100))).thenReturn(List.of(10L, 11L));
+        when(subRepo.findUserIdsByIds(List.of(10L, 11L))).thenReturn(List.of(1L, 2L));
+
+        int expired = subscriptionStatusService.expireBatch(now, 100);
+
+        assertThat(expired).isEqualTo(2);
+        verify(subRepo).deactivate(List.of(10L, 11L));
+        subscriptionStatusService.getStatus(user);
+        verify(subRepo, times(2)).findByUserAndIsActive(user, true);
+    }
+
+    @Test
+    void expireBatch_shouldSkipUpdateWhenNothingExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        when(subRepo.findExpiredActiveIds(now, PageRequest.of(0, 100))).thenReturn(List.of());
+
+        assertThat(subscriptionStatusService.expireBatch(now, 100)).isZero();
+
+        verify(subRepo, never()).deactivate(any());
+    }
+}
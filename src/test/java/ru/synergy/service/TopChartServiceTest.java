@@ -0,0 +1,118 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.synergy.dto.ChartEntryDto;
+import ru.synergy.dto.RecordedPlay;
+import ru.synergy.model.ChartCategory;
+import ru.synergy.model.ChartWindow;
+import ru.synergy.model.PlayEventType;
+import ru.synergy.model.Track;
+import ru.synergy.repository.TrackRepository;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopChartServiceTest {
+    @TempDir
+    Path snapshotDir;
+
+    @Mock
+    private TrackRepository trackRepository;
+    @InjectMocks
+    private TopChartService topChartService;
+
+    private Track hit;
+    private Track other;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(topChartService, "snapshotDir", snapshotDir.toString());
+        topChartService.init();
+
+        hit = new Track();
+        hit.setId(1L);
+        hit.setTitle("Hit");
+        hit.setArtist("Band");
+        hit.setGenres("Rock, Indie");
+
+        other = new Track();
+        other.setId(2L);
+        other.setTitle("Other");
+        other.setArtist("Band");
+        other.setGenres("rock");
+    }
+
+    @Test
+    void onPlays_shouldFeedTrackArtistAndGenreChartsAfterRefresh() {
+        when(trackRepository.findAllById(anyCollection())).thenReturn(List.of(hit, other));
+        long now = System.currentTimeMillis();
+
+        topChartService.onPlays(List.of(start(1L, now), start(1L, now), start(2L, now),
+                new RecordedPlay(1L, 2L, PlayEventType.COMPLETE, 180, now), start(99L, now)));
+        assertThat(topChartService.getChart(ChartWindow.HOUR, ChartCategory.TRACKS, 10)).isEmpty();
+
+        topChartService.refresh();
+
+        assertThat(topChartService.getChart(ChartWindow.HOUR, ChartCategory.TRACKS, 10)).containsExactly(
+                new ChartEntryDto(1L, "Hit", "Band", 2), new ChartEntryDto(2L, "Other", "Band", 1));
+        assertThat(topChartService.getChart(ChartWindow.WEEK, ChartCategory.ARTISTS, 10))
+                .containsExactly(new ChartEntryDto(null, "Band", null, 3));
+        assertThat(topChartService.getChart(ChartWindow.DAY, ChartCategory.GENRES, 10))
+                .containsExactly(new ChartEntryDto(null, "rock", null, 3), new ChartEntryDto(null, "indie", null, 2));
+        assertThat(topChartService.getChart(ChartWindow.HOUR, ChartCategory.TRACKS, 1)).hasSize(1);
+    }
+
+    @Test
+    void onPlays_shouldLookUpEachTrackOnlyOnce() {
+        when(trackRepository.findAllById(anyCollection())).thenReturn(List.of(hit));
+        long now = System.currentTimeMillis();
+
+        topChartService.onPlays(List.of(start(1L, now)));
+        topChartService.onPlays(List.of(start(1L, now)));
+        topChartService.refresh();
+
+        verify(trackRepository, times(1)).findAllById(anyCollection());
+    }
+
+    @Test
+    void onPlays_shouldIgnoreEventsOutsideTheWindow() {
+        when(trackRepository.findAllById(anyCollection())).thenReturn(List.of(hit));
+        long twoHoursAgo = System.currentTimeMillis() - 2 * 60 * 60 * 1000L;
+
+        topChartService.onPlays(List.of(start(1L, twoHoursAgo)));
+        topChartService.refresh();
+
+        assertThat(topChartService.getChart(ChartWindow.HOUR, ChartCategory.TRACKS, 10)).isEmpty();
+        assertThat(topChartService.getChart(ChartWindow.DAY, ChartCategory.TRACKS, 10)).hasSize(1);
+    }
+
+    @Test
+    void snapshot_shouldRestoreChartsAfterRestart() {
+        when(trackRepository.findAllById(anyCollection())).thenReturn(List.of(hit));
+        topChartService.onPlays(List.of(start(1L, System.currentTimeMillis())));
+        topChartService.saveSnapshot();
+
+        TopChartService restarted = new TopChartService(trackRepository);
+        ReflectionTestUtils.setField(restarted, "snapshotDir", snapshotDir.toString());
+        restarted.init();
+
+        assertThat(restarted.getChart(ChartWindow.DAY, ChartCategory.TRACKS, 10))
+                .containsExactly(new ChartEntryDto(1L, "Hit", "Band", 1));
+    }
+
+    private static RecordedPlay start(long trackId, long at) {
+        return new RecordedPlay(1L, trackId, PlayEventType.START, 0, at);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackCooccurrenceTest {
+    @Test
+    void addBasket_shouldCountEachDistinctPairInBothDirections() {
+        TrackCooccurrence cooccurrence = new TrackCooccurrence();
+        cooccurrence.addBasket(new int[]{1, 2, 3, 2});
+        cooccurrence.addBasket(new int[]{1, 2});
+
+        assertThat(cooccurrence.count(1, 2)).isEqualTo(2);
+        assertThat(cooccurrence.count(2, 1)).isEqualTo(2);
+        assertThat(cooccurrence.count(2, 3)).isEqualTo(1);
+        assertThat(cooccurrence.count(2, 2)).isZero();
+        assertThat(cooccurrence.tracks()).containsExactlyInAnyOrder(1, 2, 3);
+    }
+
+    @Test
+    void topNeighbors_shouldRankByNormalizedCooccurrence() {
+        TrackCooccurrence cooccurrence = new TrackCooccurrence();
+        cooccurrence.addBasket(new int[]{1, 2});
+        cooccurrence.addBasket(new int[]{1, 2});
+        cooccurrence.addBasket(new int[]{1, 3});
+        cooccurrence.addBasket(new int[]{3, 4});
+        cooccurrence.addBasket(new int[]{3, 5});
+
+        TrackNeighbors neighbors = cooccurrence.topNeighbors(1, 10);
+
+        assertThat(neighbors.trackIds()).containsExactly(2, 3);
+        assertThat(neighbors.scores()[0]).isGreaterThan(neighbors.scores()[1]);
+        assertThat(cooccurrence.topNeighbors(1, 1).trackIds()).containsExactly(2);
+        assertThat(cooccurrence.topNeighbors(99, 10)).isSameAs(TrackNeighbors.EMPTY);
+    }
+
+    @Test
+    void addToBasket_shouldMatchCountingTheWholeBasketAtOnce() {
+        TrackCooccurrence whole = new TrackCooccurrence();
+        whole.addBasket(new int[]{1, 2, 3});
+
+        TrackCooccurrence incremental = new TrackCooccurrence();
+        incremental.addBasket(new int[]{1, 2});
+        incremental.addToBasket(3, new int[]{1, 2});
+
+        for (int a = 1; a <= 3; a++) {
+            for (int b = 1; b <= 3; b++) {
+                assertThat(incremental.count(a, b)).isEqualTo(whole.count(a, b));
+            }
+        }
+    }
+
+    @Test
+    void build_shouldMatchSequentialCountsAcrossShards() {
+        Random random = new Random(42);
+        List<int[]> baskets = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int[] basket = new int[2 + random.nextInt(6)];
+            for (int j = 0; j < basket.length; j++) {
+                basket[j] = random.nextInt(50);
+            }
+            baskets.add(basket);
+        }
+        TrackCooccurrence sequential = new TrackCooccurrence();
+        baskets.forEach(sequential::addBasket);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        TrackCooccurrence parallel;
+        try {
+            parallel = TrackCooccurrence.build(baskets, pool, 16);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int a = 0; a < 50; a++) {
+            for (int b = 0; b < 50; b++) {
+                assertThat(parallel.count(a, b)).isEqualTo(sequential.count(a, b));
+            }
+        }
+        assertThat(parallel.tracks()).containsExactlyInAnyOrder(sequential.tracks());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.repository.TrackRatingRepository;
+import ru.synergy.repository.TrackRepository;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackRatingRebuildJobTest {
+    @Mock
+    private TrackRatingService trackRatingService;
+
+    @Mock
+    private TrackRatingRepository trackRatingRepository;
+
+    @Mock
+    private TrackRepository trackRepository;
+
+    @InjectMocks
+    private TrackRatingRebuildJob job;
+
+    @Test
+    void rebuildAll_shouldWalkCatalogInKeysetBatches() {
+        List<Long> firstBatch = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(trackRepository.findIdsAfter(0L, PageRequest.of(0, 1000))).thenReturn(firstBatch);
+        when(trackRepository.findIdsAfter(1000L, PageRequest.of(0, 1000))).thenReturn(List.of(1001L));
+
+        job.rebuildAll();
+
+        verify(trackRatingService).rebuild(firstBatch);
+        verify(trackRatingService).rebuild(List.of(1001L));
+    }
+
+    @Test
+    void createMissing_shouldRebuildTracksWithoutAggregate() {
+        when(trackRatingRepository.findTrackIdsWithoutRating(PageRequest.of(0, 1000))).thenReturn(List.of(5L, 6L));
+
+        job.createMissing();
+
+        verify(trackRatingService).rebuild(List.of(5L, 6L));
+    }
+
+    @Test
+    void createMissing_whenNothingMissing_shouldDoNothing() {
+        when(trackRatingRepository.findTrackIdsWithoutRating(PageRequest.of(0, 1000))).thenReturn(List.of());
+
+        job.createMissing();
+
+        verifyNoInteractions(trackRatingService);
+    }
+}
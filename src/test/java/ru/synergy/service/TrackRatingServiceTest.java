@@ -0,0 +1,72 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.synergy.model.TrackRating;
+import ru.synergy.repository.TrackRatingRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackRatingServiceTest {
+    @Mock
+    private TrackRatingRepository trackRatingRepository;
+
+    @InjectMocks
+    private TrackRatingService trackRatingService;
+
+    @Test
+    void recordRating_shouldIncrementExistingAggregate() {
+        when(trackRatingRepository.increment(1L, 4)).thenReturn(1);
+
+        trackRatingService.recordRating(1L, 4);
+
+        verify(trackRatingRepository, never()).insertMissing(any());
+        verify(trackRatingRepository, never()).recompute(any());
+    }
+
+    @Test
+    void recordRating_whenAggregateMissing_shouldRebuildIt() {
+        when(trackRatingRepository.increment(1L, 4)).thenReturn(0);
+
+        trackRatingService.recordRating(1L, 4);
+
+        verify(trackRatingRepository).insertMissing(List.of(1L));
+        verify(trackRatingRepository).recompute(List.of(1L));
+    }
+
+    @Test
+    void getRatings_shouldMapAggregatesByTrackId() {
+        TrackRating rating = new TrackRating();
+        rating.setTrackId(1L);
+        rating.setRatingCount(2);
+        rating.setRatingSum(7);
+        when(trackRatingRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(rating));
+
+        Map<Long, TrackRating> ratings = trackRatingService.getRatings(Set.of(1L, 2L));
+
+        assertThat(ratings).containsOnlyKeys(1L);
+        assertThat(ratings.get(1L).getAverage()).isEqualTo(3.5);
+    }
+
+    @Test
+    void getRatings_shouldSkipQueryForEmptyIds() {
+        assertThat(trackRatingService.getRatings(Set.of())).isEmpty();
+        verifyNoInteractions(trackRatingRepository);
+    }
+
+    @Test
+    void createFor_shouldInsertEmptyAggregates() {
+        trackRatingService.createFor(List.of(1L, 2L));
+
+        verify(trackRatingRepository).insertMissing(List.of(1L, 2L));
+    }
+}
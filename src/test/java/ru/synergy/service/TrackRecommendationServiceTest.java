@@ -0,0 +1,151 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import ru.synergy.dto.RecommendedTrackDto;
+import ru.synergy.model.Track;
+import ru.synergy.model.User;
+import ru.synergy.repository.PlaylistTrackRepository;
+import ru.synergy.repository.TrackRepository;
+import ru.synergy.repository.TrackReviewRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackRecommendationServiceTest {
+    private static final String ENTRIES_SQL =
+            "SELECT playlist_id, track_id FROM playlist_entries WHERE id <= ? ORDER BY playlist_id, id";
+    private static final String REVIEWS_SQL =
+            "SELECT user_id, track_id FROM track_reviews WHERE id <= ? AND rating >= ? ORDER BY user_id, id";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TrackRepository trackRepository;
+
+    @Mock
+    private TrackReviewRepository trackReviewRepository;
+
+    @Mock
+    private PlaylistTrackRepository playlistTrackRepository;
+
+    @InjectMocks
+    private TrackRecommendationService trackRecommendationService;
+
+    /**
+     * Playlist 10 holds tracks 100, 200, 300 (entries 1-3), playlist 11 holds 100, 200 (entries 4-5);
+     * listener 7 rated 300 and 400 highly (reviews 1-2)
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM playlist_entries", Long.class)).thenReturn(5L);
+        when(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM track_reviews", Long.class)).thenReturn(2L);
+        Map<String, List<long[]>> rows = Map.of(
+                ENTRIES_SQL, List.of(new long[]{10, 100}, new long[]{10, 200}, new long[]{10, 300},
+                        new long[]{11, 100}, new long[]{11, 200}),
+                REVIEWS_SQL, List.of(new long[]{7, 300}, new long[]{7, 400}));
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            Connection connection = mock(Connection.class);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            when(connection.prepareStatement(sql.capture())).thenReturn(mock(PreparedStatement.class));
+            creator.createPreparedStatement(connection);
+            for (long[] row : rows.get(sql.getValue())) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn(row[0]);
+                when(resultSet.getLong(2)).thenReturn(row[1]);
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        trackRecommendationService.rebuild();
+    }
+
+    @Test
+    void similarTracks_shouldRankByPlaylistCooccurrence() {
+        stubTracks();
+
+        List<RecommendedTrackDto> similar = trackRecommendationService.similarTracks(100L, 10);
+
+        assertThat(similar).extracting(RecommendedTrackDto::id).containsExactly(200L, 300L);
+        assertThat(similar.get(0).score()).isCloseTo(1.0, within(1e-6));
+    }
+
+    @Test
+    void recommendFor_shouldSumNeighborsOfLikedTracksAndSkipSeeds() {
+        User user = new User();
+        user.setId(7L);
+        when(trackReviewRepository.findLikedTrackIds(7L, 4, PageRequest.of(0, 50))).thenReturn(List.of(300L, 400L));
+        when(playlistTrackRepository.findRecentTrackIdsOfUser(7L, PageRequest.of(0, 50))).thenReturn(List.of());
+        stubTracks();
+
+        List<RecommendedTrackDto> result = trackRecommendationService.recommendFor(user, 5);
+
+        assertThat(result).extracting(RecommendedTrackDto::id).containsExactly(100L, 200L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyIncrements_shouldFoldNewPlaylistEntriesIntoNeighbors() {
+        when(jdbcTemplate.query(eq("SELECT id, playlist_id, track_id FROM playlist_entries WHERE id > ? ORDER BY id LIMIT ?"),
+                any(RowMapper.class), eq(5L), eq(5000)))
+                .thenReturn(List.<long[]>of(new long[]{6, 11, 300}));
+        when(jdbcTemplate.query(eq("SELECT id, track_id FROM playlist_entries WHERE playlist_id = ? AND id <= ? ORDER BY id LIMIT ?"),
+                any(RowMapper.class), eq(11L), eq(6L), eq(200)))
+                .thenReturn(List.<long[]>of(new long[]{4, 100}, new long[]{5, 200}, new long[]{6, 300}));
+        when(jdbcTemplate.query(eq("SELECT id, user_id, track_id, rating FROM track_reviews WHERE id > ? ORDER BY id LIMIT ?"),
+                any(RowMapper.class), eq(2L), eq(5000)))
+                .thenReturn(List.of());
+        stubTracks();
+
+        int applied = trackRecommendationService.applyIncrements();
+
+        assertThat(applied).isEqualTo(1);
+        assertThat(trackRecommendationService.similarTracks(300L, 10))
+                .extracting(RecommendedTrackDto::id).containsExactly(100L, 200L, 400L);
+    }
+
+    @Test
+    void similarTracks_shouldReturnEmptyForUnknownTrack() {
+        assertThat(trackRecommendationService.similarTracks(999L, 10)).isEmpty();
+        verify(trackRepository, never()).findAllById(anyIterable());
+    }
+
+    private void stubTracks() {
+        when(trackRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> {
+                Track track = new Track();
+                track.setId(id);
+                track.setTitle("Track " + id);
+                track.setArtist("Artist");
+                return track;
+            }).toList();
+        });
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.synergy.model.Track;
+import ru.synergy.model.TrackRating;
 import ru.synergy.model.TrackReview;
 import ru.synergy.model.User;
 import ru.synergy.repository.TrackRepository;
@@ -16,7 +17,9 @@ import ru.synergy.repository.TrackReviewRepository;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -29,6 +32,12 @@ public class TrackReviewServiceTest {
     @Mock
     private TrackRepository trackRepository;
 
+    @Mock
+    private TrackRatingService trackRatingService;
+
+    @Mock
+    private FeedService feedService;
+
     @InjectMocks
     private TrackReviewService trackReviewService;
 
@@ -76,25 +85,63 @@ public class TrackReviewServiceTest {
         verify(trackReviewRepository).findByTrackId(100L);
     }
 
+    @Test
+    void getReviewsByTrackIds_shouldGroupReviewsInSingleQuery() {
+        Track otherTrack = new Track();
+        otherTrack.setId(200L);
+        review1.setUser(user);
+        review2.setUser(user);
+
+        when(trackReviewRepository.findWithUserByTrackIdIn(Set.of(100L, 200L)))
+                .thenReturn(Arrays.asList(review1, review2));
+
+        Map<Long, List<TrackReview>> reviews = trackReviewService.getReviewsByTrackIds(Set.of(100L, 200L));
+
+        assertThat(reviews.get(100L)).containsExactly(review1, review2);
+        assertThat(reviews.get(200L)).isEmpty();
+        verify(trackReviewRepository).findWithUserByTrackIdIn(Set.of(100L, 200L));
+        verify(trackReviewRepository, never()).findByTrackId(any());
+    }
+
+    @Test
+    void getReviewsByTrackIds_shouldSkipQueryForEmptyIds() {
+        Map<Long, List<TrackReview>> reviews = trackReviewService.getReviewsByTrackIds(Set.of());
+
+        assertThat(reviews).isEmpty();
+        verifyNoInteractions(trackReviewRepository);
+    }
+
+    @Test
+    void getAverageRatings_shouldReturnRoundedAveragesForRatedTracks() {
+        when(trackRatingService.getRatings(Set.of(100L, 200L)))
+                .thenReturn(Map.of(100L, rating(100L, 9, 40), 200L, rating(200L, 0, 0)));
+
+        Map<Long, Double> ratings = trackReviewService.getAverageRatings(Set.of(100L, 200L));
+
+        assertThat(ratings).containsEntry(100L, 4.4);
+        assertThat(ratings).doesNotContainKey(200L);
+        verifyNoInteractions(trackReviewRepository);
+    }
+
     @Test
     void getAverageRating_shouldReturnRoundedAverage() {
-        when(trackReviewRepository.findAverageRating(100L)).thenReturn(4.5);
+        when(trackRatingService.getRating(100L)).thenReturn(Optional.of(rating(100L, 2, 9)));
 
         Double avg = trackReviewService.getAverageRating(100L);
 
         assertThat(avg).isEqualTo(4.5);
-        verify(trackReviewRepository).findAverageRating(100L);
+        verify(trackRatingService).getRating(100L);
     }
 
 
     @Test
     void getAverageRating_shouldReturnNullIfNoReviews() {
-        when(trackReviewRepository.findAverageRating(100L)).thenReturn(null);
+        when(trackRatingService.getRating(100L)).thenReturn(Optional.of(rating(100L, 0, 0)));
 
         Double avg = trackReviewService.getAverageRating(100L);
 
         assertThat(avg).isNull();
-        verify(trackReviewRepository).findAverageRating(100L);
+        verify(trackRatingService).getRating(100L);
     }
 
     @Test
@@ -117,6 +164,8 @@ public class TrackReviewServiceTest {
         assertThat(savedReview.getRating()).isEqualTo(5);
         assertThat(savedReview.getComment()).isEqualTo("Новый отзыв");
         assertThat(savedReview.getCreatedAt()).isNotNull();
+        verify(trackRatingService).recordRating(100L, 5);
+        verify(feedService).publishReviewPosted(user, track, 5);
     }
 
     @Test
@@ -130,6 +179,7 @@ public class TrackReviewServiceTest {
         assertThat(exception.getMessage()).isEqualTo("Трек не найден");
         verify(trackRepository).findById(999L);
         verify(trackReviewRepository, never()).save(any());
+        verifyNoInteractions(trackRatingService, feedService);
     }
 
     @Test
@@ -157,5 +207,15 @@ public class TrackReviewServiceTest {
 
         TrackReview saved = captor.getValue();
         assertThat(saved.getRating()).isNull();
+        verifyNoInteractions(trackRatingService);
+        verify(feedService).publishReviewPosted(user, track, null);
+    }
+
+    private TrackRating rating(Long trackId, long count, long sum) {
+        TrackRating rating = new TrackRating();
+        rating.setTrackId(trackId);
+        rating.setRatingCount(count);
+        rating.setRatingSum(sum);
+        return rating;
     }
 }
@@ -0,0 +1,121 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.model.Track;
+import ru.synergy.repository.TrackRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackSearchIndexTest {
+    @Mock
+    private TrackRepository trackRepository;
+
+    @InjectMocks
+    private TrackSearchIndex searchIndex;
+
+    private Track rockTrack;
+    private Track jazzTrack;
+
+    @BeforeEach
+    void setUp() {
+        rockTrack = track(1L, "Highway Star", "Deep Purple", "rock");
+        jazzTrack = track(2L, "Blue Rondo", "Dave Brubeck", "jazz, cool");
+        searchIndex.index(rockTrack);
+        searchIndex.index(jazzTrack);
+    }
+
+    @Test
+    void search_shouldMatchWordPrefixesCaseInsensitive() {
+        assertThat(searchIndex.search("HIGH", 0, 10)).containsExactly(1L);
+        assertThat(searchIndex.search("brub", 0, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void search_shouldRequireAllQueryTokens() {
+        assertThat(searchIndex.search("deep star", 0, 10)).containsExactly(1L);
+        assertThat(searchIndex.search("deep jazz", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesAboveGenreMatches() {
+        searchIndex.index(track(3L, "Cool Breeze", "Unknown", "ambient"));
+
+        assertThat(searchIndex.search("cool", 0, 10)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void search_shouldPaginateResults() {
+        searchIndex.index(track(3L, "Rock Me", "Someone", "pop"));
+
+        assertThat(searchIndex.search("rock", 0, 1)).containsExactly(3L);
+        assertThat(searchIndex.search("rock", 1, 1)).containsExactly(1L);
+        assertThat(searchIndex.search("rock", 2, 1)).isEmpty();
+    }
+
+    @Test
+    void search_shouldNotMatchSingleLetterPrefixes() {
+        searchIndex.index(track(3L, "A Day", "B", "pop"));
+
+        assertThat(searchIndex.search("h", 0, 10)).isEmpty();
+        assertThat(searchIndex.search("hi", 0, 10)).containsExactly(1L);
+        assertThat(searchIndex.search("a", 0, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void search_shouldIntersectPostingsIndexedOutOfOrder() {
+        searchIndex.index(track(9L, "Deep Blue", "Nobody", "rock"));
+        searchIndex.index(track(4L, "Deep Rock", "Nobody", "rock"));
+        searchIndex.remove(2L);
+
+        assertThat(searchIndex.search("deep rock", 0, 10)).containsExactly(4L, 9L, 1L);
+        assertThat(searchIndex.search("blue", 0, 10)).containsExactly(9L);
+    }
+
+    @Test
+    void search_withOffsetNearIntegerLimit_shouldReturnEmpty() {
+        assertThat(searchIndex.search("deep", Integer.MAX_VALUE - 1, 50)).isEmpty();
+    }
+
+    @Test
+    void index_shouldReplaceTermsOfUpdatedTrack() {
+        rockTrack.setTitle("Smoke on the Water");
+        searchIndex.index(rockTrack);
+
+        assertThat(searchIndex.search("highway", 0, 10)).isEmpty();
+        assertThat(searchIndex.search("smoke", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void rebuild_shouldLoadCatalogInKeysetBatchesAndMarkReady() {
+        Track loaded = track(5L, "Ёлочка", "Хор", "детское");
+        when(trackRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(PageRequest.class)))
+                .thenReturn(List.of(loaded));
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(searchIndex.search("елоч", 0, 10)).containsExactly(5L);
+        verify(trackRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000));
+    }
+
+    private static Track track(Long id, String title, String artist, String genres) {
+        Track track = new Track();
+        track.setId(id);
+        track.setTitle(title);
+        track.setArtist(artist);
+        track.setGenres(genres);
+        return track;
+    }
+}
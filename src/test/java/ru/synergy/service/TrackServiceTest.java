@@ -3,18 +3,29 @@ package ru.synergy.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import ru.synergy.dto.CursorPage;
 import ru.synergy.model.Track;
 import ru.synergy.repository.TrackRepository;
 
@@ -27,6 +38,15 @@ class TrackServiceTest {
     @Mock
     private MinioService minioService;
 
+    @Mock
+    private TrackSearchIndex searchIndex;
+
+    @Mock
+    private TrackRatingService trackRatingService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private TrackService trackService;
 
@@ -57,69 +77,220 @@ class TrackServiceTest {
     }
 
     @Test
-    void searchTracks_withNullQuery_shouldReturnAllTracks() {
-        List<Track> tracks = Collections.singletonList(track);
-        when(trackRepository.findAll()).thenReturn(tracks);
+    void getTracksPage_shouldReturnCursorWhenMoreTracksExist() {
+        Track second = new Track();
+        second.setId(2L);
+        Track third = new Track();
+        third.setId(3L);
+        when(trackRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(new ArrayList<>(List.of(track, second, third)));
+
+        CursorPage<Track> page = trackService.getTracksPage(null, 2);
+
+        assertThat(page.items()).containsExactly(track, second);
+        assertThat(page.nextCursor()).isEqualTo(2L);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void getTracksPage_shouldReturnLastPageWithoutCursor() {
+        when(trackRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(track));
+
+        CursorPage<Track> page = trackService.getTracksPage(1L, 2);
+
+        assertThat(page.items()).containsExactly(track);
+        assertThat(page.hasNext()).isFalse();
+        verify(trackRepository, never()).findAll();
+    }
+
+    @Test
+    void searchTracks_withNullQuery_shouldReturnFirstCatalogPage() {
+        when(trackRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 51)))
+                .thenReturn(Collections.singletonList(track));
 
         List<Track> result = trackService.searchTracks(null);
 
         assertThat(result).hasSize(1);
-        verify(trackRepository).findAll();
+        verify(trackRepository, never()).findAll();
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
-    void searchTracks_withEmptyQuery_shouldReturnAllTracks() {
-        List<Track> tracks = Collections.singletonList(track);
-        when(trackRepository.findAll()).thenReturn(tracks);
+    void searchTracks_withEmptyQuery_shouldReturnFirstCatalogPage() {
+        when(trackRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 51)))
+                .thenReturn(Collections.singletonList(track));
 
         List<Track> result = trackService.searchTracks("   ");
 
         assertThat(result).hasSize(1);
-        verify(trackRepository).findAll();
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
-    void searchTracks_withValidQuery_shouldReturnFilteredTracks() {
-        List<Track> tracks = Collections.singletonList(track);
-        when(trackRepository.searchTracks("Test")).thenReturn(tracks);
+    void searchTracks_withValidQuery_shouldReturnTracksInIndexOrder() {
+        Track other = new Track();
+        other.setId(2L);
+        other.setTitle("Test Other");
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("Test", 0, 50)).thenReturn(List.of(2L, 1L));
+        when(trackRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(track, other));
+
+        List<Track> result = trackService.searchTracks("Test");
+
+        assertThat(result).containsExactly(other, track);
+        verify(trackRepository, never()).searchTracks(anyString(), any());
+    }
+
+    @Test
+    void searchTracks_withPage_shouldPassOffsetToIndex() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("rock", 20, 10)).thenReturn(List.of());
+
+        List<Track> result = trackService.searchTracks("rock", 2, 10);
+
+        assertThat(result).isEmpty();
+        verify(trackRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void searchTracks_withPageBeyondIntRange_shouldReturnEmpty() {
+        List<Track> result = trackService.searchTracks("rock", Integer.MAX_VALUE, 200);
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(searchIndex, trackRepository);
+    }
+
+    @Test
+    void searchTracks_whenIndexNotReady_shouldFallBackToDatabase() {
+        when(searchIndex.isReady()).thenReturn(false);
+        when(trackRepository.searchTracks("Test", PageRequest.of(0, 50)))
+                .thenReturn(Collections.singletonList(track));
 
         List<Track> result = trackService.searchTracks("Test");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getTitle()).isEqualTo("Test Track");
-        verify(trackRepository).searchTracks("Test");
+        verify(trackRepository).searchTracks("Test", PageRequest.of(0, 50));
     }
 
     @Test
     void saveTrack_shouldUploadFileAndSaveTrack() throws Exception {
         when(file.getOriginalFilename()).thenReturn("test.mp3");
+        when(file.getContentType()).thenReturn("audio/mpeg");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(Mp3DurationProbeTest.frames(383, 0xFB, 0x90, 417)));
 
         String fileUrl = "http://localhost:9000/music-bucket/test.mp3";
-        doNothing().when(minioService).uploadFile(anyString(), anyString(), any(MultipartFile.class));
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(2);
+            in.readAllBytes();
+            return null;
+        }).when(minioService).uploadStream(eq("music-bucket"), eq("test.mp3"), any(InputStream.class),
+                eq("audio/mpeg"), eq(16L * 1024 * 1024));
         when(minioService.getFileUrl(anyString(), anyString())).thenReturn(fileUrl);
         when(trackRepository.save(track)).thenReturn(track);
 
         Track result = trackService.saveTrack(track, file);
 
         assertThat(result.getFileUrl()).isEqualTo(fileUrl);
-        verify(minioService).uploadFile("music-bucket", "test.mp3", file);
+        assertThat(result.getDurationSeconds()).isEqualTo(10);
+        verify(file).getInputStream();
         verify(minioService).getFileUrl("music-bucket", "test.mp3");
         verify(trackRepository).save(track);
+        verify(trackRatingService).createFor(List.of(1L));
+        verify(searchIndex).index(track);
     }
 
     @Test
     void saveTrack_whenUploadFails_shouldThrowException() throws Exception {
         when(file.getOriginalFilename()).thenReturn("test.mp3");
+        when(file.getContentType()).thenReturn("audio/mpeg");
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
 
         doThrow(new IOException("Minio error"))
                 .when(minioService)
-                .uploadFile(anyString(), anyString(), any(MultipartFile.class));
+                .uploadStream(anyString(), anyString(), any(InputStream.class), anyString(), anyLong());
 
         assertThrows(Exception.class, () -> trackService.saveTrack(track, file));
-        verify(minioService).uploadFile("music-bucket", "test.mp3", file);
+        verify(minioService).uploadStream(eq("music-bucket"), eq("test.mp3"), any(InputStream.class),
+                eq("audio/mpeg"), eq(16L * 1024 * 1024));
         verify(trackRepository, never()).save(any(Track.class));
     }
 
+    @Test
+    void saveTrack_fromStream_shouldUploadInPartsAndStoreChecksum() throws Exception {
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(2);
+            in.readAllBytes();
+            return null;
+        }).when(minioService).uploadStream(eq("music-bucket"), eq("test.flac"), any(InputStream.class),
+                eq("audio/flac"), eq(16L * 1024 * 1024));
+        when(minioService.getFileUrl("music-bucket", "test.flac"))
+                .thenReturn("http://localhost:9000/music-bucket/test.flac");
+        when(trackRepository.save(track)).thenReturn(track);
+
+        Track result = trackService.saveTrack(track,
+                new ByteArrayInputStream("abc".getBytes(StandardCharsets.US_ASCII)), "test.flac", "audio/flac");
+
+        assertThat(result.getObjectName()).isEqualTo("test.flac");
+        assertThat(result.getChecksum())
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+        verify(searchIndex).index(track);
+    }
+
+    @Test
+    void saveTrack_fromStream_whenPersistFails_shouldRemoveUploadedObject() throws Exception {
+        when(minioService.getFileUrl("music-bucket", "test.flac"))
+                .thenReturn("http://localhost:9000/music-bucket/test.flac");
+        when(trackRepository.save(track)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> trackService.saveTrack(track,
+                new ByteArrayInputStream(new byte[0]), "test.flac", "audio/flac"));
+
+        InOrder order = inOrder(minioService, transactionTemplate);
+        order.verify(minioService).uploadStream(eq("music-bucket"), eq("test.flac"), any(InputStream.class),
+                eq("audio/flac"), eq(16L * 1024 * 1024));
+        order.verify(transactionTemplate).execute(any());
+        order.verify(minioService).removeObject("music-bucket", "test.flac");
+        verify(searchIndex, never()).index(any());
+    }
+
+    @Test
+    void storeAudio_shouldMeasureDurationOfMp3WhileUploading() throws Exception {
+        doAnswer(invocation -> {
+            InputStream in = invocation.getArgument(2);
+            in.readAllBytes();
+            return null;
+        }).when(minioService).uploadStream(eq("music-bucket"), eq("song.mp3"), any(InputStream.class),
+                eq("audio/mpeg"), eq(16L * 1024 * 1024));
+
+        trackService.storeAudio(track, new ByteArrayInputStream(Mp3DurationProbeTest.frames(383, 0xFB, 0x90, 417)),
+                "song.mp3", "audio/mpeg");
+
+        assertThat(track.getDurationSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    void saveTrack_fromStream_shouldRejectPathInFileName() {
+        assertThrows(IllegalArgumentException.class, () -> trackService.saveTrack(track,
+                new ByteArrayInputStream(new byte[0]), "../etc/passwd", "audio/flac"));
+        verifyNoInteractions(minioService, trackRepository);
+    }
+
+    @Test
+    void saveTracks_shouldSaveAllAndIndexEachTrack() {
+        Track other = new Track();
+        other.setId(2L);
+        when(trackRepository.saveAll(List.of(track, other))).thenReturn(List.of(track, other));
+
+        List<Track> result = trackService.saveTracks(List.of(track, other));
+
+        assertThat(result).containsExactly(track, other);
+        verify(trackRatingService).createFor(List.of(1L, 2L));
+        verify(searchIndex).index(track);
+        verify(searchIndex).index(other);
+    }
+
     @Test
     void getTrackByFileUrl_shouldReturnTrackWhenFound() {
         when(trackRepository.findByFileUrl("http://url")).thenReturn(Optional.of(track));
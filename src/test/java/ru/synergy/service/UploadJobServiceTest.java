@@ -0,0 +1,122 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import ru.synergy.dto.UploadJobDto;
+import ru.synergy.model.Track;
+
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadJobServiceTest {
+    @Mock
+    private TrackService trackService;
+
+    private UploadJobService uploadJobService;
+
+    @BeforeEach
+    void setUp() {
+        uploadJobService = new UploadJobService(trackService, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadJobService.shutdown();
+    }
+
+    @Test
+    void submit_shouldSaveTrackInBackgroundAndReportResult() throws Exception {
+        Track saved = new Track();
+        saved.setId(5L);
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), eq("song.mp3"), eq("audio/mpeg")))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(1, InputStream.class).readAllBytes();
+                    return saved;
+                });
+
+        String jobId = uploadJobService.submit(new Track(), file("song.mp3"), "user");
+        UploadJobDto job = awaitFinished(jobId, "user");
+
+        assertThat(job.status()).isEqualTo("DONE");
+        assertThat(job.trackId()).isEqualTo(5L);
+        assertThat(job.bytesUploaded()).isEqualTo(job.bytesTotal()).isEqualTo(7L);
+    }
+
+    @Test
+    void submit_whenSaveFails_shouldReportError() throws Exception {
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), any(), any()))
+                .thenThrow(new IllegalArgumentException("Некорректное имя файла"));
+
+        String jobId = uploadJobService.submit(new Track(), file("song.mp3"), "user");
+        UploadJobDto job = awaitFinished(jobId, "user");
+
+        assertThat(job.status()).isEqualTo("FAILED");
+        assertThat(job.error()).isEqualTo("Некорректное имя файла");
+    }
+
+    @Test
+    void getJob_shouldHideJobsOfOtherUsers() throws Exception {
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), any(), any())).thenReturn(new Track());
+
+        String jobId = uploadJobService.submit(new Track(), file("song.mp3"), "owner");
+
+        assertThat(uploadJobService.getJob(jobId, "intruder")).isEmpty();
+        awaitFinished(jobId, "owner");
+    }
+
+    @Test
+    void submit_whenQueueIsFull_shouldRejectUpload() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(trackService.saveTrack(any(Track.class), any(InputStream.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new Track();
+                });
+
+        uploadJobService.submit(new Track(), file("a.mp3"), "user");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        uploadJobService.submit(new Track(), file("b.mp3"), "user");
+
+        assertThrows(IllegalStateException.class,
+                () -> uploadJobService.submit(new Track(), file("c.mp3"), "user"));
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldRejectEmptyFile() {
+        MockMultipartFile empty = new MockMultipartFile("file", "empty.mp3", "audio/mpeg", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadJobService.submit(new Track(), empty, "user"));
+        verifyNoInteractions(trackService);
+    }
+
+    private MockMultipartFile file(String name) {
+        return new MockMultipartFile("file", name, "audio/mpeg", "content".getBytes());
+    }
+
+    private UploadJobDto awaitFinished(String jobId, String username) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        UploadJobDto job = uploadJobService.getJob(jobId, username).orElseThrow();
+        while (!job.status().equals("DONE") && !job.status().equals("FAILED")
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = uploadJobService.getJob(jobId, username).orElseThrow();
+        }
+        return job;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import ru.synergy.model.Role;
@@ -15,7 +16,7 @@ import ru.synergy.repository.UserRepository;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserDetailServiceImplTest {
@@ -51,6 +52,56 @@ class UserDetailServiceImplTest {
                 .containsExactly("ROLE_USER");
     }
 
+    @Test
+    void loadUserByUsername_shouldServeRepeatedLookupsFromCache() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailService.loadUserByUsername("testUser");
+        ((CredentialsContainer) first).eraseCredentials();
+        UserDetails second = userDetailService.loadUserByUsername("testUser");
+
+        assertThat(second.getPassword()).isEqualTo("encoded-password");
+        verify(userRepository, times(1)).findByUsername("testUser");
+    }
+
+    @Test
+    void evict_shouldForceReloadFromRepository() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        userDetailService.loadUserByUsername("testUser");
+        user.setPasswordHash("new-password");
+        userDetailService.evict("testUser");
+
+        assertThat(userDetailService.loadUserByUsername("testUser").getPassword()).isEqualTo("new-password");
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+
+    @Test
+    void onCredentialsChanged_shouldEvictCachedPrincipal() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+
+        userDetailService.loadUserByUsername("testUser");
+        user.setRole(Role.ROLE_ADMIN);
+        userDetailService.onCredentialsChanged(new UserCredentialsChangedEvent("testUser"));
+
+        assertThat(userDetailService.loadUserByUsername("testUser").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_ADMIN");
+        verify(userRepository, times(2)).findByUsername("testUser");
+    }
+
+    @Test
+    void updatePassword_shouldStoreUpgradedHashAndEvictCache() {
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        UserDetails details = userDetailService.loadUserByUsername("testUser");
+
+        UserDetails updated = userDetailService.updatePassword(details, "{bcrypt}upgraded");
+
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}upgraded");
+        assertThat(user.getPasswordHash()).isEqualTo("{bcrypt}upgraded");
+        verify(userRepository).save(user);
+        assertThat(userDetailService.loadUserByUsername("testUser").getPassword()).isEqualTo("{bcrypt}upgraded");
+    }
+
     @Test
     void loadUserByUsername_shouldThrowUsernameNotFoundExceptionWhenUserDoesNotExist() {
         when(userRepository.findByUsername("unknown"))
@@ -0,0 +1,51 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.repository.UserFollowStatsRepository;
+import ru.synergy.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserFollowStatsRebuildJobTest {
+    @Mock
+    private UserFollowStatsService userFollowStatsService;
+
+    @Mock
+    private UserFollowStatsRepository userFollowStatsRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserFollowStatsRebuildJob job;
+
+    @Test
+    void rebuildAll_shouldWalkUsersInKeysetBatches() {
+        List<Long> firstBatch = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 1000))).thenReturn(firstBatch);
+        when(userRepository.findIdsAfter(1000L, PageRequest.of(0, 1000))).thenReturn(List.of(1001L));
+
+        job.rebuildAll();
+
+        verify(userFollowStatsService).rebuild(firstBatch);
+        verify(userFollowStatsService).rebuild(List.of(1001L));
+    }
+
+    @Test
+    void createMissing_shouldRebuildUsersWithoutCounters() {
+        when(userFollowStatsRepository.findUserIdsWithoutStats(PageRequest.of(0, 1000))).thenReturn(List.of(5L, 6L));
+
+        job.createMissing();
+
+        verify(userFollowStatsService).rebuild(List.of(5L, 6L));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.synergy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.dto.UserSummaryDto;
+import ru.synergy.model.UserFollowStats;
+import ru.synergy.repository.UserFollowStatsRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserFollowStatsServiceTest {
+    @Mock
+    private UserFollowStatsRepository userFollowStatsRepository;
+
+    @InjectMocks
+    private UserFollowStatsService userFollowStatsService;
+
+    @Test
+    void recordFollow_shouldIncrementBothCounters() {
+        when(userFollowStatsRepository.adjustFollowers(2L, 1)).thenReturn(1);
+        when(userFollowStatsRepository.adjustFollowing(1L, 1)).thenReturn(1);
+
+        userFollowStatsService.recordFollow(1L, 2L);
+
+        verify(userFollowStatsRepository, never()).insertMissing(any());
+        verify(userFollowStatsRepository, never()).recompute(any());
+    }
+
+    @Test
+    void recordUnfollow_shouldDecrementBothCounters() {
+        when(userFollowStatsRepository.adjustFollowers(2L, -1)).thenReturn(1);
+        when(userFollowStatsRepository.adjustFollowing(1L, -1)).thenReturn(1);
+
+        userFollowStatsService.recordUnfollow(1L, 2L);
+
+        verify(userFollowStatsRepository).adjustFollowers(2L, -1);
+        verify(userFollowStatsRepository).adjustFollowing(1L, -1);
+    }
+
+    @Test
+    void recordFollow_whenCountersMissing_shouldRebuildThem() {
+        when(userFollowStatsRepository.adjustFollowers(2L, 1)).thenReturn(0);
+        when(userFollowStatsRepository.adjustFollowing(1L, 1)).thenReturn(1);
+
+        userFollowStatsService.recordFollow(1L, 2L);
+
+        verify(userFollowStatsRepository).insertMissing(List.of(2L));
+        verify(userFollowStatsRepository).recompute(List.of(2L));
+        verify(userFollowStatsRepository, never()).recompute(List.of(1L));
+    }
+
+    @Test
+    void detach_shouldDecrementNeighboursAndDropOwnCounters() {
+        userFollowStatsService.detach(1L);
+
+        verify(userFollowStatsRepository).decrementFollowersOfFollowed(1L);
+        verify(userFollowStatsRepository).decrementFollowingOfFollowers(1L);
+        verify(userFollowStatsRepository).deleteById(1L);
+    }
+
+    @Test
+    void getStats_shouldMapCountersByUserId() {
+        UserFollowStats stats = new UserFollowStats();
+        stats.setUserId(1L);
+        stats.setFollowersCount(250_000);
+        when(userFollowStatsRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(stats));
+
+        Map<Long, UserFollowStats> result = userFollowStatsService.getStats(Set.of(1L, 2L));
+
+        assertThat(result).containsOnlyKeys(1L);
+        assertThat(result.get(1L).getFollowersCount()).isEqualTo(250_000);
+    }
+
+    @Test
+    void getStats_shouldSkipQueryForEmptyIds() {
+        assertThat(userFollowStatsService.getStats(Set.of())).isEmpty();
+        verifyNoInteractions(userFollowStatsRepository);
+    }
+
+    @Test
+    void getMostFollowed_shouldExcludeNobodyForAnonymousUser() {
+        List<UserSummaryDto> top = List.of(new UserSummaryDto(3L, "popular"));
+        when(userFollowStatsRepository.findMostFollowedNotFollowedBy(-1L, PageRequest.of(0, 5))).thenReturn(top);
+
+        assertThat(userFollowStatsService.getMostFollowed(null, 5)).isEqualTo(top);
+    }
+}
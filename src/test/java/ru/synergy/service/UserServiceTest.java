@@ -6,11 +6,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import ru.synergy.dto.CursorPage;
+import ru.synergy.dto.UserDirectoryPage;
+import ru.synergy.dto.UserSummaryDto;
 import ru.synergy.model.User;
+import ru.synergy.model.UserFollowId;
+import ru.synergy.model.UserFollowStats;
+import ru.synergy.repository.UserFollowRepository;
 import ru.synergy.repository.UserRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,6 +29,16 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserFollowRepository userFollowRepository;
+    @Mock
+    private UserFollowStatsService userFollowStatsService;
+    @Mock
+    private FeedService feedService;
+    @Mock
+    private FollowRecommendationService followRecommendationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserService userService;
 
@@ -31,7 +50,6 @@ class UserServiceTest {
         follower = new User();
         follower.setId(1L);
         follower.setUsername("follower");
-        follower.setFollowing(new java.util.ArrayList<>());
 
         target = new User();
         target.setId(2L);
@@ -85,59 +103,147 @@ class UserServiceTest {
     }
 
     @Test
-    void findAll_shouldReturnAllUsers() {
-        List<User> users = List.of(follower, target);
-        when(userRepository.findAll()).thenReturn(users);
+    void getDirectoryPage_shouldSearchByEscapedPrefixAndReturnUsernameCursor() {
+        when(userRepository.findDirectoryPage("fo\\_o%", "", PageRequest.of(0, 2)))
+                .thenReturn(List.of(follower, target));
 
-        List<User> result = userService.findAll();
+        UserDirectoryPage page = userService.getDirectoryPage(" fo_o ", null, 1);
 
-        assertThat(result).hasSize(2);
-        assertThat(result).containsExactlyInAnyOrder(target, follower);
-        verify(userRepository).findAll();
+        assertThat(page.users()).containsExactly(follower);
+        assertThat(page.nextCursor()).isEqualTo("follower");
     }
 
     @Test
-    void follow_shouldAddTargetToFollowingListAndSave() {
+    void getDirectoryPage_shouldContinueAfterCursorAndEndOnShortPage() {
+        when(userRepository.findDirectoryPage("%", "follower", PageRequest.of(0, 51)))
+                .thenReturn(List.of(target));
+
+        UserDirectoryPage page = userService.getDirectoryPage(null, "follower", 50);
+
+        assertThat(page.users()).containsExactly(target);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void getSuggestedUsers_shouldCapLimit() {
+        List<UserSummaryDto> suggestions = List.of(new UserSummaryDto(2L, "target"));
+        when(followRecommendationService.recommend(1L, UserService.MAX_SUGGESTIONS)).thenReturn(suggestions);
+
+        assertThat(userService.getSuggestedUsers(follower, 10_000)).isEqualTo(suggestions);
+    }
+
+    @Test
+    void follow_shouldInsertFollowRow() {
+        when(userFollowRepository.insertIfAbsent(1L, 2L)).thenReturn(1);
+
         userService.follow(follower, target);
 
-        assertThat(follower.getFollowing()).contains(target);
-        verify(userRepository).save(follower);
+        verify(userFollowRepository).insertIfAbsent(1L, 2L);
+        verify(userFollowStatsService).recordFollow(1L, 2L);
+        verify(feedService).onFollow(1L, 2L);
+        verify(followRecommendationService).onFollow(1L, 2L);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    void follow_shouldNotAddWhenSameUser() {
+    void follow_shouldNotInsertWhenSameUser() {
         userService.follow(follower, follower);
 
-        assertThat(follower.getFollowing()).isEmpty();
-        verify(userRepository, never()).save(any(User.class));
+        verify(userFollowRepository, never()).insertIfAbsent(any(), any());
     }
 
     @Test
-    void follow__shouldNotAddDuplicate() {
-        follower.getFollowing().add(target);
+    void follow__shouldIgnoreDuplicate() {
+        when(userFollowRepository.insertIfAbsent(1L, 2L)).thenReturn(0);
+
         userService.follow(follower, target);
 
-        assertThat(follower.getFollowing()).hasSize(1);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userFollowRepository).insertIfAbsent(1L, 2L);
+        verifyNoInteractions(userFollowStatsService, feedService);
     }
 
     @Test
-    void unfollow_shouldRemoveTargetFromFollowingAndSave() {
-        follower.getFollowing().add(target);
+    void unfollow_shouldDeleteFollowRow() {
+        when(userFollowRepository.deleteFollow(1L, 2L)).thenReturn(1);
 
         userService.unfollow(follower, target);
 
-        assertThat(follower.getFollowing()).doesNotContain(target);
-        verify(userRepository).save(follower);
+        verify(userFollowRepository).deleteFollow(1L, 2L);
+        verify(userFollowStatsService).recordUnfollow(1L, 2L);
+        verify(feedService).onUnfollow(1L, 2L);
+        verify(followRecommendationService).onUnfollow(1L, 2L);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void isFollowing_shouldCheckFollowRowById() {
+        when(userFollowRepository.existsById(new UserFollowId(1L, 2L))).thenReturn(true);
+
+        assertThat(userService.isFollowing(follower, target)).isTrue();
+    }
+
+    @Test
+    void countFollowers_shouldReadPrecomputedCounter() {
+        UserFollowStats stats = new UserFollowStats();
+        stats.setUserId(2L);
+        stats.setFollowersCount(42);
+        when(userFollowStatsService.getStats(2L)).thenReturn(Optional.of(stats));
+
+        assertThat(userService.countFollowers(target)).isEqualTo(42);
+        verifyNoInteractions(userFollowRepository);
+    }
+
+    @Test
+    void getFollowersPage_shouldReturnCursorWhenMoreRowsExist() {
+        List<UserSummaryDto> rows = List.of(new UserSummaryDto(3L, "a"), new UserSummaryDto(5L, "b"),
+                new UserSummaryDto(8L, "c"));
+        when(userFollowRepository.findFollowersPage(2L, 0L, PageRequest.of(0, 3))).thenReturn(rows);
+
+        CursorPage<UserSummaryDto> page = userService.getFollowersPage(2L, null, 2);
+
+        assertThat(page.items()).extracting(UserSummaryDto::id).containsExactly(3L, 5L);
+        assertThat(page.nextCursor()).isEqualTo(5L);
+    }
+
+    @Test
+    void getFollowingPage_onLastPage_shouldReturnNullCursor() {
+        when(userFollowRepository.findFollowingPage(1L, 5L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(new UserSummaryDto(8L, "c")));
+
+        CursorPage<UserSummaryDto> page = userService.getFollowingPage(1L, 5L, 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void getFollowedIdsAmong_shouldReturnOnlyFollowedIds() {
+        when(userFollowRepository.findFollowedIdsAmong(1L, List.of(2L, 3L))).thenReturn(List.of(2L));
+
+        Set<Long> result = userService.getFollowedIdsAmong(follower, List.of(2L, 3L));
+
+        assertThat(result).containsExactly(2L);
+    }
+
+    @Test
+    void getFollowedIdsAmong_shouldSkipQueryForAnonymousUser() {
+        assertThat(userService.getFollowedIdsAmong(null, List.of(2L))).isEmpty();
+
+        verifyNoInteractions(userFollowRepository);
     }
 
     @Test
     void deleteById_shouldCallRepositoryDelete() {
         Long id = 1L;
+        when(userRepository.findById(id)).thenReturn(Optional.of(follower));
 
         userService.deleteById(id);
 
+        verify(userFollowStatsService).detach(id);
+        verify(feedService).deleteAllOfUser(id);
+        verify(userFollowRepository).deleteAllOfUser(id);
         verify(userRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(new UserCredentialsChangedEvent("follower"));
     }
 
     @Test
@@ -148,5 +254,6 @@ class UserServiceTest {
 
         assertThat(result).isEqualTo(follower);
         verify(userRepository).save(follower);
+        verify(eventPublisher).publishEvent(new UserCredentialsChangedEvent("follower"));
     }
 }
\ No newline at end of file